@@ -0,0 +1,155 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Bitbase de vitória/empate/derrota de um final de 3 ou 4 peças, mapeada em memória.
+// Casas 0..63 = linha * 8 + coluna. Índice: (((lado * 64 + reiBranco) * 64 + reiPreto) * 64 + peça1) * 64 + peça2,
+// com lado 0 = brancas a jogar e as peças extras na ordem da assinatura (ex.: "KQKR").
+// O arquivo tem um cabeçalho e dois vetores de bits: vitória e derrota do lado a jogar; o resto é empate.
+public class Bitbase implements Closeable {
+    public static final int WIN = 1;
+    public static final int DRAW = 0;
+    public static final int LOSS = -1;
+
+    static final int MAGIC = 0x58424231; // "XBB1"
+    static final int HEADER_SIZE = 16;
+    static final String PIECE_ORDER = "QRBNP";
+    static final String FILE_EXTENSION = ".xbb";
+
+    private final String signature;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int lossOffset;
+
+    private Bitbase(String signature, FileChannel channel, MappedByteBuffer buffer, int words) {
+        this.signature = signature;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lossOffset = HEADER_SIZE + words * Long.BYTES;
+    }
+
+    static Bitbase open(Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+        String signature = fileName.substring(0, fileName.length() - FILE_EXTENSION.length());
+        int extraPieces = signature.length() - 2;
+        if (extraPieces < 1 || extraPieces > 2) {
+            throw new IOException("Assinatura de final inválida: " + signature);
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            int words = wordCount(extraPieces);
+            long expectedSize = HEADER_SIZE + 2L * words * Long.BYTES;
+            if (channel.size() != expectedSize) {
+                throw new IOException("Tamanho inesperado para " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != positionCount(extraPieces)) {
+                throw new IOException("Cabeçalho inválido em " + path);
+            }
+            return new Bitbase(signature, channel, buffer, words);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    int probe(int index) {
+        long wordOffset = (long) (index >>> 6) * Long.BYTES;
+        long bit = 1L << (index & 63);
+        if ((buffer.getLong(HEADER_SIZE + (int) wordOffset) & bit) != 0) return WIN;
+        if ((buffer.getLong(lossOffset + (int) wordOffset) & bit) != 0) return LOSS;
+        return DRAW;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static int positionCount(int extraPieces) {
+        return 2 << (6 * (2 + extraPieces));
+    }
+
+    static int wordCount(int extraPieces) {
+        return (positionCount(extraPieces) + 63) / 64;
+    }
+
+    static int index(int sideToMove, int whiteKing, int blackKing, int[] extraSquares, int extraPieces) {
+        int index = sideToMove;
+        index = index * 64 + whiteKing;
+        index = index * 64 + blackKing;
+        for (int i = 0; i < extraPieces; i++) {
+            index = index * 64 + extraSquares[i];
+        }
+        return index;
+    }
+
+    // "K" + peças brancas + "K" + peças pretas, cada lado na ordem Q R B N P
+    static String signature(String whitePieces, String blackPieces) {
+        return "K" + sortPieces(whitePieces) + "K" + sortPieces(blackPieces);
+    }
+
+    static String whitePieces(String signature) {
+        return signature.substring(1, signature.indexOf('K', 1));
+    }
+
+    static String blackPieces(String signature) {
+        return signature.substring(signature.indexOf('K', 1) + 1);
+    }
+
+    static String flipped(String signature) {
+        return "K" + blackPieces(signature) + "K" + whitePieces(signature);
+    }
+
+    // Orientação guardada em disco: o lado com mais material fica com as brancas
+    static String canonical(String signature) {
+        String flipped = flipped(signature);
+        int white = material(whitePieces(signature));
+        int black = material(blackPieces(signature));
+        if (white != black) {
+            return white > black ? signature : flipped;
+        }
+        return signature.compareTo(flipped) <= 0 ? signature : flipped;
+    }
+
+    // Finais sem material suficiente para dar mate em nenhuma sequência
+    static boolean isTrivialDraw(String signature) {
+        String pieces = whitePieces(signature) + blackPieces(signature);
+        return pieces.isEmpty() || pieces.equals("N") || pieces.equals("B");
+    }
+
+    static String sortPieces(String pieces) {
+        StringBuilder sorted = new StringBuilder(pieces.length());
+        for (int i = 0; i < PIECE_ORDER.length(); i++) {
+            char type = PIECE_ORDER.charAt(i);
+            for (int j = 0; j < pieces.length(); j++) {
+                if (pieces.charAt(j) == type) sorted.append(type);
+            }
+        }
+        return sorted.toString();
+    }
+
+    private static int material(String pieces) {
+        int total = 0;
+        for (int i = 0; i < pieces.length(); i++) {
+            switch (pieces.charAt(i)) {
+                case 'Q': total += 9; break;
+                case 'R': total += 5; break;
+                case 'B':
+                case 'N': total += 3; break;
+                default: total += 1;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,528 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+// Gera bitbases de finais de 3 e 4 peças por análise retrógrada iterativa.
+// A cada passagem uma posição vira vitória se algum lance leva a uma derrota do adversário e
+// derrota se todos os lances levam a vitórias dele; para quando uma passagem não muda nada.
+// As passagens são divididas em blocos de palavras de 64 bits executados no ForkJoinPool, de modo
+// que cada palavra é escrita por uma única tarefa. Capturas e promoções consultam as tabelas
+// menores, geradas antes como dependências. Roque e en passant não são considerados.
+//
+// Uso: java controller.BitbaseGenerator [diretório] [KQK,KRK,...]
+public class BitbaseGenerator {
+    private static final String[] DEFAULT_SIGNATURES = {
+        "KQK", "KRK", "KPK", "KQKR", "KQKP", "KRKP", "KRKB", "KRKN", "KPKP"
+    };
+    private static final String PROMOTIONS = "QRBN";
+    private static final int WORDS_PER_TASK = 256;
+    private static final int UNRESOLVED = 2;
+    private static final int NO_MOVES = 3;
+    private static final char NO_PROMOTION = 0;
+
+    private static final int[][] KING_STEPS = { { -1, -1 }, { -1, 0 }, { -1, 1 }, { 0, -1 }, { 0, 1 }, { 1, -1 }, { 1, 0 }, { 1, 1 } };
+    private static final int[][] KNIGHT_STEPS = { { -2, -1 }, { -2, 1 }, { -1, -2 }, { -1, 2 }, { 1, -2 }, { 1, 2 }, { 2, -1 }, { 2, 1 } };
+    private static final int[][] ROOK_STEPS = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
+    private static final int[][] BISHOP_STEPS = { { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+
+    private final Path directory;
+    private final Map<String, long[][]> tables = new HashMap<>();
+
+    public BitbaseGenerator(Path directory) {
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "bitbases");
+        String[] signatures = args.length > 1 ? args[1].split(",") : DEFAULT_SIGNATURES;
+        Files.createDirectories(directory);
+
+        BitbaseGenerator generator = new BitbaseGenerator(directory);
+        for (String signature : signatures) {
+            generator.generate(signature.trim().toUpperCase());
+        }
+    }
+
+    public void generate(String signature) throws IOException {
+        String canonical = Bitbase.canonical(signature);
+        if (Bitbase.isTrivialDraw(canonical) || tables.containsKey(canonical)) {
+            return;
+        }
+        if (canonical.length() - 2 > Bitbases.MAX_PIECES - 2) {
+            throw new IllegalArgumentException("Só são suportados finais de até " + Bitbases.MAX_PIECES + " peças: " + signature);
+        }
+
+        // Dependências: tabelas alcançadas por captura ou promoção
+        String white = Bitbase.whitePieces(canonical);
+        String black = Bitbase.blackPieces(canonical);
+        for (int i = 0; i < white.length(); i++) {
+            generate(Bitbase.signature(remove(white, i), black));
+            if (white.charAt(i) == 'P') {
+                for (char promotion : PROMOTIONS.toCharArray()) {
+                    generate(Bitbase.signature(replace(white, i, promotion), black));
+                }
+            }
+        }
+        for (int i = 0; i < black.length(); i++) {
+            generate(Bitbase.signature(white, remove(black, i)));
+            if (black.charAt(i) == 'P') {
+                for (char promotion : PROMOTIONS.toCharArray()) {
+                    generate(Bitbase.signature(white, replace(black, i, promotion)));
+                }
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        Material material = new Material(canonical);
+        int words = Bitbase.wordCount(material.extraPieces);
+        long[] win = new long[words];
+        long[] loss = new long[words];
+
+        int passes = 0;
+        long changes;
+        do {
+            LongAdder changed = new LongAdder();
+            ForkJoinPool.commonPool().invoke(new PassTask(material, win, loss, 0, words, changed));
+            changes = changed.sum();
+            passes++;
+        } while (changes > 0);
+
+        tables.put(canonical, new long[][] { win, loss });
+        write(canonical, win, loss, material.extraPieces);
+        System.out.printf("Bitbase %s gerada em %d passagens (%d ms): %d vitórias, %d derrotas%n",
+                canonical, passes, System.currentTimeMillis() - start, countBits(win), countBits(loss));
+    }
+
+    private void write(String signature, long[] win, long[] loss, int extraPieces) throws IOException {
+        Path file = directory.resolve(signature + Bitbase.FILE_EXTENSION);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            buffer.putInt(Bitbase.MAGIC).putInt(Bitbase.positionCount(extraPieces)).putLong(0);
+            for (long[] bits : new long[][] { win, loss }) {
+                for (long word : bits) {
+                    if (buffer.remaining() < Long.BYTES) {
+                        drain(channel, buffer);
+                    }
+                    buffer.putLong(word);
+                }
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static long countBits(long[] bits) {
+        long total = 0;
+        for (long word : bits) total += Long.bitCount(word);
+        return total;
+    }
+
+    private static String remove(String pieces, int index) {
+        return pieces.substring(0, index) + pieces.substring(index + 1);
+    }
+
+    private static String replace(String pieces, int index, char type) {
+        return pieces.substring(0, index) + type + pieces.substring(index + 1);
+    }
+
+    // Peças de uma assinatura: posições 0 e 1 são os reis, as demais seguem a ordem da assinatura
+    private static final class Material {
+        final int extraPieces;
+        final char[] types;
+        final boolean[] white;
+
+        Material(String signature) {
+            String whitePieces = Bitbase.whitePieces(signature);
+            String blackPieces = Bitbase.blackPieces(signature);
+            extraPieces = whitePieces.length() + blackPieces.length();
+            types = new char[2 + extraPieces];
+            white = new boolean[2 + extraPieces];
+            types[0] = 'K';
+            white[0] = true;
+            types[1] = 'K';
+            for (int i = 0; i < whitePieces.length(); i++) {
+                types[2 + i] = whitePieces.charAt(i);
+                white[2 + i] = true;
+            }
+            for (int i = 0; i < blackPieces.length(); i++) {
+                types[2 + whitePieces.length() + i] = blackPieces.charAt(i);
+            }
+        }
+    }
+
+    private final class PassTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Material material;
+        private final long[] win;
+        private final long[] loss;
+        private final int fromWord;
+        private final int toWord;
+        private final LongAdder changed;
+
+        PassTask(Material material, long[] win, long[] loss, int fromWord, int toWord, LongAdder changed) {
+            this.material = material;
+            this.win = win;
+            this.loss = loss;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+            this.changed = changed;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWord - fromWord > WORDS_PER_TASK) {
+                int middle = (fromWord + toWord) >>> 1;
+                invokeAll(new PassTask(material, win, loss, fromWord, middle, changed),
+                        new PassTask(material, win, loss, middle, toWord, changed));
+                return;
+            }
+
+            Solver solver = new Solver(material, win, loss);
+            long updates = 0;
+            for (int w = fromWord; w < toWord; w++) {
+                long resolved = win[w] | loss[w];
+                long newWins = 0;
+                long newLosses = 0;
+                for (int b = 0; b < 64; b++) {
+                    if ((resolved & (1L << b)) != 0) continue;
+                    int result = solver.solve(w * 64 + b);
+                    if (result == Bitbase.WIN) newWins |= 1L << b;
+                    else if (result == Bitbase.LOSS) newLosses |= 1L << b;
+                }
+                if ((newWins | newLosses) != 0) {
+                    win[w] |= newWins;
+                    loss[w] |= newLosses;
+                    updates += Long.bitCount(newWins | newLosses);
+                }
+            }
+            changed.add(updates);
+        }
+    }
+
+    // Avalia uma posição da tabela em construção; guarda o estado em vetores reaproveitados
+    private final class Solver {
+        private final Material material;
+        private final long[] win;
+        private final long[] loss;
+        private final int pieceCount;
+        private final int[] squares;
+        private final boolean[] alive;
+        private final int[] childExtras = new int[Bitbases.MAX_PIECES - 2];
+
+        Solver(Material material, long[] win, long[] loss) {
+            this.material = material;
+            this.win = win;
+            this.loss = loss;
+            this.pieceCount = 2 + material.extraPieces;
+            this.squares = new int[pieceCount];
+            this.alive = new boolean[pieceCount];
+        }
+
+        int solve(int index) {
+            int sideToMove = decode(index);
+            if (!isLegal(sideToMove)) {
+                return Bitbase.DRAW;
+            }
+            boolean whiteToMove = sideToMove == 0;
+            int king = whiteToMove ? 0 : 1;
+
+            boolean hasMove = false;
+            boolean allChildrenWin = true;
+            for (int p = 0; p < pieceCount; p++) {
+                if (material.white[p] != whiteToMove) continue;
+                int from = squares[p];
+                int result;
+                switch (material.types[p]) {
+                    case 'K': result = tryJumps(p, KING_STEPS, sideToMove); break;
+                    case 'N': result = tryJumps(p, KNIGHT_STEPS, sideToMove); break;
+                    case 'B': result = trySlides(p, BISHOP_STEPS, sideToMove); break;
+                    case 'R': result = trySlides(p, ROOK_STEPS, sideToMove); break;
+                    case 'Q':
+                        result = trySlides(p, ROOK_STEPS, sideToMove);
+                        if (result != Bitbase.WIN) {
+                            result = combine(result, trySlides(p, BISHOP_STEPS, sideToMove));
+                        }
+                        break;
+                    default: result = tryPawn(p, sideToMove); break;
+                }
+                squares[p] = from;
+                if (result == Bitbase.WIN) return Bitbase.WIN;
+                if (result != NO_MOVES) {
+                    hasMove = true;
+                    if (result != Bitbase.LOSS) allChildrenWin = false;
+                }
+            }
+
+            if (!hasMove) {
+                return isAttacked(squares[king], !whiteToMove) ? Bitbase.LOSS : Bitbase.DRAW;
+            }
+            return allChildrenWin ? Bitbase.LOSS : UNRESOLVED;
+        }
+
+        // Resultado agregado dos lances de uma peça, do ponto de vista de quem joga:
+        // WIN se algum lance vence, LOSS se todos perdem, UNRESOLVED caso contrário
+        private int combine(int a, int b) {
+            if (a == Bitbase.WIN || b == Bitbase.WIN) return Bitbase.WIN;
+            if (a == NO_MOVES) return b;
+            if (b == NO_MOVES) return a;
+            return a == Bitbase.LOSS && b == Bitbase.LOSS ? Bitbase.LOSS : UNRESOLVED;
+        }
+
+        private int tryJumps(int p, int[][] steps, int sideToMove) {
+            int from = squares[p];
+            int result = NO_MOVES;
+            for (int[] step : steps) {
+                int row = (from >> 3) + step[0];
+                int col = (from & 7) + step[1];
+                if (row < 0 || row > 7 || col < 0 || col > 7) continue;
+                result = combine(result, tryMove(p, from, row * 8 + col, NO_PROMOTION, sideToMove));
+                if (result == Bitbase.WIN) break;
+            }
+            return result;
+        }
+
+        private int trySlides(int p, int[][] steps, int sideToMove) {
+            int from = squares[p];
+            int result = NO_MOVES;
+            for (int[] step : steps) {
+                int row = (from >> 3) + step[0];
+                int col = (from & 7) + step[1];
+                while (row >= 0 && row <= 7 && col >= 0 && col <= 7) {
+                    int target = row * 8 + col;
+                    result = combine(result, tryMove(p, from, target, NO_PROMOTION, sideToMove));
+                    if (result == Bitbase.WIN) return result;
+                    if (occupant(target, p) >= 0) break;
+                    row += step[0];
+                    col += step[1];
+                }
+            }
+            return result;
+        }
+
+        private int tryPawn(int p, int sideToMove) {
+            int from = squares[p];
+            boolean white = material.white[p];
+            int direction = white ? -1 : 1;
+            int row = (from >> 3) + direction;
+            int col = from & 7;
+            int result = NO_MOVES;
+
+            int front = row * 8 + col;
+            if (occupant(front, p) < 0) {
+                result = combine(result, tryPawnMove(p, from, front, row, sideToMove));
+                int startRow = white ? 6 : 1;
+                int doubleFront = front + direction * 8;
+                if ((from >> 3) == startRow && occupant(doubleFront, p) < 0) {
+                    result = combine(result, tryMove(p, from, doubleFront, NO_PROMOTION, sideToMove));
+                }
+            }
+            for (int dc = -1; dc <= 1; dc += 2) {
+                if (col + dc < 0 || col + dc > 7) continue;
+                int target = row * 8 + col + dc;
+                int victim = occupant(target, p);
+                if (victim >= 2 && material.white[victim] != white) {
+                    result = combine(result, tryPawnMove(p, from, target, row, sideToMove));
+                }
+            }
+            return result;
+        }
+
+        private int tryPawnMove(int p, int from, int target, int row, int sideToMove) {
+            if (row != 0 && row != 7) {
+                return tryMove(p, from, target, NO_PROMOTION, sideToMove);
+            }
+            int result = NO_MOVES;
+            for (char promotion : PROMOTIONS.toCharArray()) {
+                result = combine(result, tryMove(p, from, target, promotion, sideToMove));
+                if (result == Bitbase.WIN) break;
+            }
+            return result;
+        }
+
+        // Executa o lance, verifica a legalidade e devolve o resultado do ponto de vista de quem jogou
+        private int tryMove(int p, int from, int target, char newType, int sideToMove) {
+            int victim = occupant(target, p);
+            if (victim >= 0 && (material.white[victim] == material.white[p] || victim < 2)) {
+                return NO_MOVES;
+            }
+
+            squares[p] = target;
+            if (victim >= 0) alive[victim] = false;
+            int king = sideToMove == 0 ? 0 : 1;
+            int result;
+            if (isAttacked(squares[king], sideToMove != 0)) {
+                result = NO_MOVES;
+            } else {
+                int child = victim >= 0 || newType != NO_PROMOTION
+                        ? probeOther(p, newType, 1 - sideToMove)
+                        : probeSame(1 - sideToMove);
+                result = child == Bitbase.LOSS ? Bitbase.WIN : child == Bitbase.WIN ? Bitbase.LOSS : UNRESOLVED;
+            }
+            if (victim >= 0) alive[victim] = true;
+            squares[p] = from;
+            return result;
+        }
+
+        private int probeSame(int sideToMove) {
+            for (int i = 2; i < pieceCount; i++) {
+                childExtras[i - 2] = squares[i];
+            }
+            int index = Bitbase.index(sideToMove, squares[0], squares[1], childExtras, material.extraPieces);
+            return readBits(win, loss, index);
+        }
+
+        // Posição depois de captura ou promoção: pertence a outra tabela, já gerada
+        private int probeOther(int moved, char newType, int sideToMove) {
+            StringBuilder whitePieces = new StringBuilder();
+            StringBuilder blackPieces = new StringBuilder();
+            int[] whiteSquares = new int[pieceCount];
+            int[] blackSquares = new int[pieceCount];
+            for (int i = 2; i < pieceCount; i++) {
+                if (!alive[i]) continue;
+                char type = i == moved && newType != NO_PROMOTION ? newType : material.types[i];
+                if (material.white[i]) {
+                    whiteSquares[whitePieces.length()] = squares[i];
+                    whitePieces.append(type);
+                } else {
+                    blackSquares[blackPieces.length()] = squares[i];
+                    blackPieces.append(type);
+                }
+            }
+
+            String signature = Bitbase.signature(whitePieces.toString(), blackPieces.toString());
+            if (Bitbase.isTrivialDraw(signature)) {
+                return Bitbase.DRAW;
+            }
+            long[][] table = tables.get(signature);
+            int[] extras = new int[Bitbases.MAX_PIECES - 2];
+            int extraCount = whitePieces.length() + blackPieces.length();
+            if (table != null) {
+                order(whitePieces, whiteSquares, extras, 0, false);
+                order(blackPieces, blackSquares, extras, whitePieces.length(), false);
+                return readBits(table[0], table[1], Bitbase.index(sideToMove, squares[0], squares[1], extras, extraCount));
+            }
+            table = tables.get(Bitbase.flipped(signature));
+            if (table == null) {
+                throw new IllegalStateException("Bitbase dependente não gerada: " + signature);
+            }
+            order(blackPieces, blackSquares, extras, 0, true);
+            order(whitePieces, whiteSquares, extras, blackPieces.length(), true);
+            return readBits(table[0], table[1],
+                    Bitbase.index(1 - sideToMove, squares[1] ^ 56, squares[0] ^ 56, extras, extraCount));
+        }
+
+        private void order(CharSequence pieces, int[] source, int[] target, int offset, boolean flip) {
+            for (int i = 0; i < Bitbase.PIECE_ORDER.length(); i++) {
+                char type = Bitbase.PIECE_ORDER.charAt(i);
+                for (int j = 0; j < pieces.length(); j++) {
+                    if (pieces.charAt(j) == type) {
+                        target[offset++] = flip ? source[j] ^ 56 : source[j];
+                    }
+                }
+            }
+        }
+
+        private int readBits(long[] winBits, long[] lossBits, int index) {
+            long bit = 1L << (index & 63);
+            if ((winBits[index >>> 6] & bit) != 0) return Bitbase.WIN;
+            if ((lossBits[index >>> 6] & bit) != 0) return Bitbase.LOSS;
+            return UNRESOLVED;
+        }
+
+        private int decode(int index) {
+            for (int i = pieceCount - 1; i >= 0; i--) {
+                squares[i] = index & 63;
+                alive[i] = true;
+                index >>>= 6;
+            }
+            return index;
+        }
+
+        private boolean isLegal(int sideToMove) {
+            for (int i = 0; i < pieceCount; i++) {
+                for (int j = i + 1; j < pieceCount; j++) {
+                    if (squares[i] == squares[j]) return false;
+                }
+                if (material.types[i] == 'P') {
+                    int row = squares[i] >> 3;
+                    if (row == 0 || row == 7) return false;
+                }
+            }
+            // O lado que não joga não pode estar em xeque
+            int waitingKing = sideToMove == 0 ? 1 : 0;
+            return !isAttacked(squares[waitingKing], sideToMove == 0);
+        }
+
+        private int occupant(int square, int ignore) {
+            for (int i = 0; i < pieceCount; i++) {
+                if (i != ignore && alive[i] && squares[i] == square) return i;
+            }
+            return -1;
+        }
+
+        private boolean isAttacked(int target, boolean byWhite) {
+            int targetRow = target >> 3;
+            int targetCol = target & 7;
+            for (int i = 0; i < pieceCount; i++) {
+                if (!alive[i] || material.white[i] != byWhite || squares[i] == target) continue;
+                int row = squares[i] >> 3;
+                int col = squares[i] & 7;
+                int dr = targetRow - row;
+                int dc = targetCol - col;
+                switch (material.types[i]) {
+                    case 'K':
+                        if (Math.abs(dr) <= 1 && Math.abs(dc) <= 1) return true;
+                        break;
+                    case 'N':
+                        if (Math.abs(dr) * Math.abs(dc) == 2) return true;
+                        break;
+                    case 'P':
+                        if (dr == (byWhite ? -1 : 1) && Math.abs(dc) == 1) return true;
+                        break;
+                    case 'B':
+                        if (Math.abs(dr) == Math.abs(dc) && isPathClear(row, col, target)) return true;
+                        break;
+                    case 'R':
+                        if ((dr == 0 || dc == 0) && isPathClear(row, col, target)) return true;
+                        break;
+                    default:
+                        if ((dr == 0 || dc == 0 || Math.abs(dr) == Math.abs(dc)) && isPathClear(row, col, target)) return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isPathClear(int row, int col, int target) {
+            int stepRow = Integer.signum((target >> 3) - row);
+            int stepCol = Integer.signum((target & 7) - col);
+            row += stepRow;
+            col += stepCol;
+            while (row * 8 + col != target) {
+                if (occupant(row * 8 + col, -1) >= 0) return false;
+                row += stepRow;
+                col += stepCol;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import model.board.Board;
+import model.board.Position;
+import model.pieces.King;
+import model.pieces.Piece;
+
+// Conjunto de bitbases de um diretório (gerado pelo BitbaseGenerator), consultado pela busca
+public class Bitbases implements Closeable {
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    public static final int MAX_PIECES = 4;
+
+    private final Map<String, Bitbase> tables = new HashMap<>();
+
+    public static Bitbases open(Path directory) throws IOException {
+        Bitbases bitbases = new Bitbases();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + Bitbase.FILE_EXTENSION)) {
+            for (Path file : files) {
+                Bitbase table = Bitbase.open(file);
+                bitbases.tables.put(table.getSignature(), table);
+            }
+        } catch (IOException e) {
+            bitbases.close();
+            throw e;
+        }
+        return bitbases;
+    }
+
+    public int size() {
+        return tables.size();
+    }
+
+    // Resultado (WIN, DRAW ou LOSS) do ponto de vista de quem joga, ou UNKNOWN fora das tabelas
+    public int probe(Board board, boolean whiteToMove) {
+        int whiteKing = -1;
+        int blackKing = -1;
+        StringBuilder whitePieces = new StringBuilder();
+        StringBuilder blackPieces = new StringBuilder();
+        int[] whiteSquares = new int[MAX_PIECES];
+        int[] blackSquares = new int[MAX_PIECES];
+        int count = 0;
+
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece p = board.getPieceAt(new Position(row, col));
+                if (p == null) continue;
+                if (++count > MAX_PIECES) return UNKNOWN;
+                int square = row * 8 + col;
+                if (p instanceof King) {
+                    if (p.isWhite()) whiteKing = square;
+                    else blackKing = square;
+                } else if (p.isWhite()) {
+                    whiteSquares[whitePieces.length()] = square;
+                    whitePieces.append(p.getSymbol());
+                } else {
+                    blackSquares[blackPieces.length()] = square;
+                    blackPieces.append(p.getSymbol());
+                }
+            }
+        }
+        if (whiteKing < 0 || blackKing < 0) return UNKNOWN;
+
+        String signature = Bitbase.signature(whitePieces.toString(), blackPieces.toString());
+        if (Bitbase.isTrivialDraw(signature)) return Bitbase.DRAW;
+
+        int[] extras = new int[MAX_PIECES - 2];
+        Bitbase table = tables.get(signature);
+        if (table != null) {
+            orderSquares(whitePieces, whiteSquares, extras, 0, false);
+            orderSquares(blackPieces, blackSquares, extras, whitePieces.length(), false);
+            return table.probe(Bitbase.index(whiteToMove ? 0 : 1, whiteKing, blackKing, extras, count - 2));
+        }
+
+        // Tabela guardada com as cores invertidas: espelha as linhas e troca os lados
+        table = tables.get(Bitbase.flipped(signature));
+        if (table != null) {
+            orderSquares(blackPieces, blackSquares, extras, 0, true);
+            orderSquares(whitePieces, whiteSquares, extras, blackPieces.length(), true);
+            return table.probe(Bitbase.index(whiteToMove ? 1 : 0, blackKing ^ 56, whiteKing ^ 56, extras, count - 2));
+        }
+        return UNKNOWN;
+    }
+
+    // Copia as casas das peças na ordem Q R B N P usada no índice da tabela
+    private static void orderSquares(CharSequence pieces, int[] squares, int[] target, int offset, boolean flip) {
+        for (int i = 0; i < Bitbase.PIECE_ORDER.length(); i++) {
+            char type = Bitbase.PIECE_ORDER.charAt(i);
+            for (int j = 0; j < pieces.length(); j++) {
+                if (pieces.charAt(j) == type) {
+                    target[offset++] = flip ? squares[j] ^ 56 : squares[j];
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Bitbase table : tables.values()) {
+            table.close();
+        }
+    }
+}
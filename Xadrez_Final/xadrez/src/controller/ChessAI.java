@@ -3,9 +3,11 @@ package controller;
 import model.board.Board;
 import model.board.Move;
 import model.board.Position;
+import model.board.Zobrist;
 import model.pieces.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
@@ -14,8 +16,30 @@ public class ChessAI {
     private final Game game;
     private final Random random = new Random();
     private Difficulty difficulty = Difficulty.MEDIUM;
+    private PolyglotBook openingBook;
+    private Bitbases bitbases;
+    private ExperienceFile experience;
+    private Evaluator evaluator = new ClassicEvaluator();
+    private final List<ExperienceRecord> pendingExperience = new ArrayList<>();
+    private long nodes;
+    private Move rootBestMove;
+    private int rootMaterial;
+    private int lastScore;
+    private List<Move> rootGoodMoves = new ArrayList<>();
+    private volatile boolean stopped;
+    private volatile long timeLimit; // milissegundos, 0 = sem limite
+    private long searchStart;
+    private SearchListener listener;
+    private boolean verbose = true;
+    private final Move[][] pv = new Move[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    // Hashes das posições da partida desde o último lance irreversível (até keyBase, a raiz) seguidos
+    // dos da linha atual da busca, e os lances sem captura nem peão em cada ply da busca
+    private long[] positionKeys = new long[2 * MAX_PLY];
+    private final int[] halfMoveClocks = new int[MAX_PLY];
+    private int keyBase;
     
-    // Tabela de pontuação das peças
+    // Valores das peças para ordenação de lances e profundidade; a avaliação usa os pesos do Evaluator
     private static final int PAWN_VALUE = 100;
     private static final int KNIGHT_VALUE = 320;
     private static final int BISHOP_VALUE = 330;
@@ -23,17 +47,37 @@ public class ChessAI {
     private static final int QUEEN_VALUE = 900;
     private static final int KING_VALUE = 20000;
 
-    // Exemplo de tabela de valor posicional para o cavalo (Knight)
-    private static final int[] KNIGHT_POSITION_TABLE = new int[]{
-        -50,-40,-30,-30,-30,-30,-40,-50,
-        -40,-20,  0,  0,  0,  0,-20,-40,
-        -30,  0, 10, 15, 15, 10,  0,-30,
-        -30,  5, 15, 20, 20, 15,  5,-30,
-        -30,  0, 15, 20, 20, 15,  0,-30,
-        -30,  5, 10, 15, 15, 10,  5,-30,
-        -40,-20,  0,  5,  5,  0,-20,-40,
-        -50,-40,-30,-30,-30,-30,-40,-50
-    };
+    // Limites da busca: as pontuações de mate ficam abaixo de INFINITY para que negar nunca estoure
+    private static final int INFINITY = 1_000_000;
+    private static final int MATE_SCORE = 900_000;
+    private static final int MATE_THRESHOLD = MATE_SCORE - 1000;
+    private static final int KNOWN_WIN = 500_000;
+    private static final int MAX_EXTENSION_PLY = 16;
+    private static final int MIN_EXPERIENCE_DEPTH = 3;
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int GOOD_MOVE_MARGIN = 50;
+    private static final int MAX_PLY = 128;
+    private static final int TIME_CHECK_NODES = 1024;
+
+    // Resultado de uma busca desta partida, gravado no arquivo de experiência quando ela termina
+    private static final class ExperienceRecord {
+        final long key;
+        final Move move;
+        final int depth;
+        final int score;
+
+        ExperienceRecord(long key, Move move, int depth, int score) {
+            this.key = key;
+            this.move = move;
+            this.depth = depth;
+            this.score = score;
+        }
+    }
+
+    // Avisada ao fim de cada iteração do aprofundamento iterativo (usada pelo modo UCI)
+    public interface SearchListener {
+        void iterationCompleted(int depth, int score, long nodes, List<Move> principalVariation);
+    }
 
     public enum Difficulty {
         EASY,// Profundidade 1-2, 40% chance de movimento subótimo
@@ -46,6 +90,11 @@ public class ChessAI {
         this.game = game;
     }
     
+    // Mensagens da busca no console; as ferramentas sem interface e o servidor desligam
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
     public void setDifficulty(Difficulty difficulty) {
         this.difficulty = difficulty;
     }
@@ -54,20 +103,58 @@ public class ChessAI {
         return this.difficulty;
     }
 
+    public void setOpeningBook(PolyglotBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    public void setBitbases(Bitbases bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    // null volta para a avaliação clássica com os pesos padrão
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator != null ? evaluator : new ClassicEvaluator();
+    }
+
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public void setExperience(ExperienceFile experience) {
+        this.experience = experience;
+    }
+
+    // Grava no arquivo de experiência as buscas profundas da partida encerrada
+    public void commitExperience() {
+        if (experience == null || pendingExperience.isEmpty()) {
+            return;
+        }
+        for (ExperienceRecord record : pendingExperience) {
+            Position from = record.move.getFrom();
+            Position to = record.move.getTo();
+            experience.store(record.key, from.getRow() * 8 + from.getColumn(), to.getRow() * 8 + to.getColumn(),
+                    record.depth, record.score);
+        }
+        experience.flush();
+        if (verbose) System.out.println("AI: " + pendingExperience.size() + " posições gravadas na experiência");
+        pendingExperience.clear();
+    }
+
     public void makeMove() {
-        System.out.println("A IA está pensando...");
+        if (verbose) System.out.println("A IA está pensando...");
         int depth = getBaseDepthByDifficulty();
         
         Move bestMove = findBestMove(depth);
         
         if (bestMove == null) {
-            System.out.println("Nenhum movimento válido encontrado! A IA se rendeu.");
+            if (verbose) System.out.println("Nenhum movimento válido encontrado! A IA se rendeu.");
             return;
         }
         
         try {
-            if (game.movePieceDirect(bestMove.getFrom(), bestMove.getTo())) {
-                System.out.printf("A IA moveu %s de %s para %s%n", bestMove.getPiece().getSymbol(), bestMove.getFrom(), bestMove.getTo());
+            char promotion = bestMove.getPromotionPiece() != Game.NO_PROMOTION_CHOICE ? bestMove.getPromotionPiece() : 'Q';
+            if (game.movePiece(bestMove.getFrom(), bestMove.getTo(), promotion)) {
+                if (verbose) System.out.printf("A IA moveu %s de %s para %s%n", bestMove.getPiece().getSymbol(), bestMove.getFrom(), bestMove.getTo());
             }
         } catch (Exception e) {
             System.err.println("Erro ao mover a peça: " + e.getMessage());
@@ -96,46 +183,148 @@ public class ChessAI {
         return priority;
     }
 
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    // Interrompe a busca em andamento, de qualquer thread; vale o lance da última iteração completa
+    public void stop() {
+        stopped = true;
+    }
+
+    // Muda o tempo da busca em andamento, contado do seu início (por exemplo, no ponderhit do UCI)
+    public void setTimeLimit(long millis) {
+        timeLimit = millis;
+    }
+
     public Move findBestMove(int baseDepth) {
-        System.out.println("AI: Começando a busca por um movimento...");
-        int depth = getAdjustedDepth(baseDepth);
+        stopped = false;
+        timeLimit = 0;
+        return bestMove(baseDepth, true);
+    }
+
+    // Busca sem os limites de profundidade da dificuldade: até maxDepth, até o tempo acabar ou até stop().
+    // Um stop() anterior à chamada também vale, para não se perder quando chega antes da busca começar.
+    public Move search(int maxDepth, long timeLimitMillis) {
+        timeLimit = timeLimitMillis;
+        return bestMove(Math.min(maxDepth, MAX_PLY / 2), false);
+    }
+
+    private Move bestMove(int baseDepth, boolean limitDepthByDifficulty) {
+        searchStart = System.currentTimeMillis();
+        lastScore = 0;
+        if (openingBook != null) {
+            Move bookMove = openingBook.probe(game);
+            if (bookMove != null) {
+                if (verbose) System.out.println("AI: Lance do livro de aberturas: " + bookMove);
+                return bookMove;
+            }
+        }
+        
+        if (verbose) System.out.println("AI: Começando a busca por um movimento...");
+        int depth = limitDepthByDifficulty ? getAdjustedDepth(baseDepth) : baseDepth;
         List<Move> possibleMoves = getAllValidMoves(game.getBoard(), game.isWhiteTurn());
         
-        System.out.println("AI: Encontrou " + possibleMoves.size() + " movimentos válidos para analisar.");
+        if (verbose) System.out.println("AI: Encontrou " + possibleMoves.size() + " movimentos válidos para analisar.");
         
         if (possibleMoves.isEmpty()) {
-            System.out.println("AI: Nenhum movimento válido encontrado! A IA se rendeu.");
+            if (verbose) System.out.println("AI: Nenhum movimento válido encontrado! A IA se rendeu.");
             return null;
         }
         
         Collections.sort(possibleMoves, (m1, m2) -> getMovePriority(m2) - getMovePriority(m1));
         
-        Move bestMove = null;
-        int bestValue = Integer.MIN_VALUE;
-        int alpha = Integer.MIN_VALUE;
-        int beta = Integer.MAX_VALUE;
-        List<Move> goodMoves = new ArrayList<>();
+        if (bitbases != null) {
+            possibleMoves = filterByBitbase(possibleMoves);
+        }
         
         if (difficulty == Difficulty.EASY && random.nextInt(100) < 40) {
             return possibleMoves.get(random.nextInt(possibleMoves.size()));
         }
         
-        for (Move move : possibleMoves) {
-            Board testBoard = game.getBoard().clone();
-            makeTestMove(testBoard, move);
+        // Experiência de partidas anteriores: com profundidade suficiente o lance é usado direto
+        // (só no nível especialista, que não sorteia lances); senão ele apenas abre a busca
+        long positionKey = Zobrist.getDefault().hash(game.getBoard(), game.isWhiteTurn(), game.getLastPawnDoubleMove());
+        if (experience != null) {
+            ExperienceFile.Entry entry = experience.lookup(positionKey);
+            Move experienceMove = entry == null ? null : findMove(possibleMoves, entry.getFromSquare(), entry.getToSquare());
+            if (experienceMove != null) {
+                if (difficulty == Difficulty.EXPERT && entry.getDepth() >= depth) {
+                    if (verbose) System.out.println("AI: Lance da experiência (profundidade " + entry.getDepth() + "): " + experienceMove);
+                    return experienceMove;
+                }
+                possibleMoves.remove(experienceMove);
+                possibleMoves.add(0, experienceMove);
+            }
+        }
+        
+        nodes = 0;
+        long[] history = game.getReversiblePositionKeys();
+        keyBase = history.length - 1;
+        if (positionKeys.length < keyBase + MAX_PLY) {
+            positionKeys = new long[keyBase + MAX_PLY];
+        }
+        System.arraycopy(history, 0, positionKeys, 0, history.length);
+        halfMoveClocks[0] = game.getHalfMoveClock();
+        rootMaterial = countMaterial(game.getBoard());
+        evaluator.reset(game.getBoard());
+        int margin = difficulty == Difficulty.EXPERT ? 0 : GOOD_MOVE_MARGIN;
+        Move bestMove = null;
+        List<Move> goodMoves = new ArrayList<>();
+        int previousScore = 0;
+        
+        // Aprofundamento iterativo com janela de aspiração em torno da pontuação anterior
+        for (int currentDepth = 1; currentDepth <= depth; currentDepth++) {
+            int window = ASPIRATION_WINDOW;
+            int alpha = -INFINITY;
+            int beta = INFINITY;
+            if (currentDepth > 1 && Math.abs(previousScore) < MATE_THRESHOLD) {
+                alpha = previousScore - window;
+                beta = previousScore + window;
+            }
             
-            // Lógica NegaMax: o valor do próximo nível é negado
-            int moveValue = -minimax(testBoard, depth - 1, -beta, -alpha, !game.isWhiteTurn());
+            int score;
+            while (true) {
+                score = searchRoot(possibleMoves, currentDepth, alpha, beta, margin);
+                if (stopped) {
+                    break;
+                } else if (score <= alpha && alpha > -INFINITY) {
+                    window *= 4;
+                    alpha = Math.max(-INFINITY, previousScore - window);
+                } else if (score >= beta && beta < INFINITY) {
+                    window *= 4;
+                    beta = Math.min(INFINITY, previousScore + window);
+                } else {
+                    break;
+                }
+            }
             
-            if (moveValue > bestValue) {
-                bestValue = moveValue;
-                bestMove = move;
-                alpha = Math.max(alpha, bestValue);
-                goodMoves.clear();
-                goodMoves.add(move);
-            } else if (moveValue >= bestValue - 50) {
-                goodMoves.add(move);
+            // Iteração interrompida: o resultado parcial só serve se nenhuma outra terminou
+            if (stopped) {
+                if (bestMove == null) bestMove = rootBestMove;
+                break;
             }
+            previousScore = score;
+            bestMove = rootBestMove;
+            goodMoves = rootGoodMoves;
+            
+            // O melhor lance da iteração anterior é o primeiro a ser pesquisado na próxima
+            possibleMoves.remove(bestMove);
+            possibleMoves.add(0, bestMove);
+            
+            if (verbose) System.out.printf("AI: profundidade %d concluída (pontuação %d, %d nós)%n", currentDepth, score, nodes);
+            if (listener != null) {
+                listener.iterationCompleted(currentDepth, score, nodes, new ArrayList<>(Arrays.asList(pv[0]).subList(0, pvLength[0])));
+            }
+            if (Math.abs(score) >= MATE_THRESHOLD) break;
+            // Com mais da metade do tempo gasto, a próxima iteração dificilmente terminaria
+            long limit = timeLimit;
+            if (limit > 0 && System.currentTimeMillis() - searchStart > limit / 2) break;
+        }
+        
+        lastScore = previousScore;
+        if (bestMove != null && depth >= MIN_EXPERIENCE_DEPTH && !stopped) {
+            pendingExperience.add(new ExperienceRecord(positionKey, bestMove, depth, previousScore));
         }
         
         if (!goodMoves.isEmpty() && bestMove != null) {
@@ -159,6 +348,161 @@ public class ChessAI {
         return bestMove;
     }
     
+    private Move findMove(List<Move> moves, int fromSquare, int toSquare) {
+        for (Move move : moves) {
+            if (move.getFrom().getRow() * 8 + move.getFrom().getColumn() == fromSquare
+                    && move.getTo().getRow() * 8 + move.getTo().getColumn() == toSquare) {
+                return move;
+            }
+        }
+        return null;
+    }
+    
+    public long getNodeCount() {
+        return nodes;
+    }
+    
+    // Pontuação da última busca do ponto de vista de quem jogou (0 para lances do livro ou sorteados)
+    public int getLastScore() {
+        return lastScore;
+    }
+    
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE_THRESHOLD;
+    }
+
+    // Em quantos plies sai o mate de uma pontuação de mate
+    public static int mateDistance(int score) {
+        return MATE_SCORE - Math.abs(score);
+    }
+    
+    // Mantém só os lances que preservam o melhor resultado da bitbase (vitória, senão empate);
+    // assim nenhuma dificuldade entrega um final ganho e a busca apenas ordena os lances restantes
+    private List<Move> filterByBitbase(List<Move> moves) {
+        Board board = game.getBoard();
+        boolean whiteTurn = game.isWhiteTurn();
+        if (bitbases.probe(board, whiteTurn) == Bitbases.UNKNOWN) {
+            return moves;
+        }
+        
+        // Entre os lances que mantêm o resultado, uma vitória fica com os que progridem: o resultado sozinho
+        // não impede o rei de andar em círculos até a repetição ou a regra dos 50 lances
+        List<Move> kept = new ArrayList<>();
+        int bestResult = Bitbase.LOSS;
+        int bestProgress = 0;
+        int pieceCount = countPieces(board);
+        for (Move move : moves) {
+            Board testBoard = board.clone();
+            makeTestMove(testBoard, move);
+            int childResult = bitbases.probe(testBoard, !whiteTurn);
+            if (childResult == Bitbases.UNKNOWN) {
+                return moves;
+            }
+            int result = -childResult;
+            int progress = result == Bitbase.WIN ? getProgress(move, countPieces(testBoard) < pieceCount) : 0;
+            if (result > bestResult || (result == bestResult && progress > bestProgress)) {
+                bestResult = result;
+                bestProgress = progress;
+                kept.clear();
+            }
+            if (result == bestResult && progress == bestProgress) {
+                kept.add(move);
+            }
+        }
+        if (verbose) System.out.println("AI: Bitbase: " + kept.size() + " de " + moves.size() + " lances preservam o resultado");
+        return kept;
+    }
+    
+    // Progresso de um lance que mantém a vitória: converter (promover ou capturar, indo para uma tabela
+    // menor) vale mais que avançar um peão, que por sua vez vale mais que qualquer outro lance
+    private static int getProgress(Move move, boolean captured) {
+        if (captured || (move.getPiece() instanceof Pawn && (move.getTo().getRow() == 0 || move.getTo().getRow() == 7))) {
+            return 2;
+        }
+        return move.getPiece() instanceof Pawn ? 1 : 0;
+    }
+
+    private static int countPieces(Board board) {
+        int count = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                if (board.getPieceAt(new Position(r, c)) != null) count++;
+            }
+        }
+        return count;
+    }
+    
+    private int countMaterial(Board board) {
+        int total = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                total += getPieceValue(board.getPieceAt(new Position(r, c)));
+            }
+        }
+        return total;
+    }
+    
+    // Busca na raiz com PVS: o primeiro lance usa a janela completa e os demais uma janela nula.
+    // A janela nula é rebaixada pela margem para reconhecer os lances "bons" usados nas dificuldades
+    // com movimentos subótimos.
+    private int searchRoot(List<Move> moves, int depth, int alpha, int beta, int margin) {
+        Board board = game.getBoard();
+        boolean whiteTurn = game.isWhiteTurn();
+        int bestValue = -INFINITY;
+        Move bestMove = null;
+        List<Move> candidates = new ArrayList<>();
+        List<Integer> candidateValues = new ArrayList<>();
+        boolean firstMove = true;
+        pvLength[0] = 0;
+        
+        for (Move move : moves) {
+            Board testBoard = board.clone();
+            makeTestMove(testBoard, move);
+            recordPosition(testBoard, move, 1, !whiteTurn);
+            evaluator.makeMove(move, 0);
+            
+            int value;
+            if (firstMove) {
+                value = -minimax(testBoard, depth - 1, 1, -beta, -alpha, !whiteTurn);
+            } else {
+                int bound = alpha - margin;
+                value = -minimax(testBoard, depth - 1, 1, -bound - 1, -bound, !whiteTurn);
+                if (value > alpha && value < beta) {
+                    value = -minimax(testBoard, depth - 1, 1, -beta, -alpha, !whiteTurn);
+                }
+            }
+            firstMove = false;
+            if (stopped) {
+                break;
+            }
+            
+            if (value > bestValue) {
+                bestValue = value;
+                bestMove = move;
+                updatePrincipalVariation(0, move);
+            }
+            if (value > alpha - margin) {
+                candidates.add(move);
+                candidateValues.add(value);
+            }
+            if (value > alpha) {
+                alpha = value;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        
+        rootBestMove = bestMove;
+        rootGoodMoves = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (candidateValues.get(i) >= bestValue - margin) {
+                rootGoodMoves.add(candidates.get(i));
+            }
+        }
+        return bestValue;
+    }
+    
     private int getAdjustedDepth(int baseDepth) {
         int depth = baseDepth;
         
@@ -197,30 +541,86 @@ public class ChessAI {
         return totalMaterial < 1500;
     }
 
-    private int minimax(Board board, int depth, int alpha, int beta, boolean isMaximizingPlayer) {
+    // Variação principal do ply: o lance seguido da variação do ply seguinte
+    private void updatePrincipalVariation(int ply, Move move) {
+        pv[ply][ply] = move;
+        int childLength = ply + 1 < MAX_PLY ? pvLength[ply + 1] : ply + 1;
+        for (int i = ply + 1; i < childLength; i++) {
+            pv[ply][i] = pv[ply + 1][i];
+        }
+        pvLength[ply] = Math.max(ply + 1, childLength);
+    }
+
+    private int minimax(Board board, int depth, int ply, int alpha, int beta, boolean isMaximizingPlayer) {
+        nodes++;
+        pvLength[ply] = ply;
+        if ((nodes % TIME_CHECK_NODES) == 0) {
+            long limit = timeLimit;
+            if (limit > 0 && System.currentTimeMillis() - searchStart >= limit) stopped = true;
+        }
+        if (stopped || ply >= MAX_PLY - 1) {
+            return evaluate(board, isMaximizingPlayer, ply);
+        }
+        // Posição repetida (na partida ou na própria linha) ou 50 lances: empate, sem continuar o ciclo
+        if (isDrawByRepetition(ply)) {
+            return 0;
+        }
+        // Extensão de xeque: uma folha em xeque ganha mais um lance para que o mate seja visto
+        if (depth == 0 && ply < MAX_EXTENSION_PLY && isKingInCheck(board, isMaximizingPlayer)) {
+            depth = 1;
+        }
         if (depth == 0) {
-            return evaluateBoard(board, isMaximizingPlayer);
+            return evaluate(board, isMaximizingPlayer, ply);
         }
         
         List<Move> moves = getAllValidMoves(board, isMaximizingPlayer);
         if (moves.isEmpty()) {
             if (isKingInCheck(board, isMaximizingPlayer)) {
-                return -KING_VALUE; // Checkmate
+                return -MATE_SCORE + ply; // Checkmate: mates mais curtos valem mais
             }
             return 0; // Draw
         }
         
+        // Conversões (captura ou promoção) para um final com bitbase: o resultado exato encerra a busca.
+        // Dentro do mesmo final da raiz a busca continua, para que a avaliação conduza ao mate.
+        if (bitbases != null) {
+            int result = bitbases.probe(board, isMaximizingPlayer);
+            if (result != Bitbases.UNKNOWN && countMaterial(board) != rootMaterial) {
+                if (result == Bitbase.DRAW) return 0;
+                return result * KNOWN_WIN + evaluate(board, isMaximizingPlayer, ply);
+            }
+        }
+        
         Collections.sort(moves, (m1, m2) -> getMovePriority(m2) - getMovePriority(m1));
         
-        int bestValue = Integer.MIN_VALUE;
+        int bestValue = -INFINITY;
+        boolean firstMove = true;
         
         for (Move move : moves) {
             Board testBoard = board.clone();
             makeTestMove(testBoard, move);
+            recordPosition(testBoard, move, ply + 1, !isMaximizingPlayer);
+            evaluator.makeMove(move, ply);
             
-            int value = -minimax(testBoard, depth - 1, -beta, -alpha, !isMaximizingPlayer);
+            int value;
+            if (firstMove) {
+                value = -minimax(testBoard, depth - 1, ply + 1, -beta, -alpha, !isMaximizingPlayer);
+            } else {
+                // PVS: janela nula e nova busca só se o lance superar alpha
+                value = -minimax(testBoard, depth - 1, ply + 1, -alpha - 1, -alpha, !isMaximizingPlayer);
+                if (value > alpha && value < beta) {
+                    value = -minimax(testBoard, depth - 1, ply + 1, -beta, -alpha, !isMaximizingPlayer);
+                }
+            }
+            firstMove = false;
+            if (stopped) {
+                return bestValue == -INFINITY ? value : bestValue;
+            }
             
-            bestValue = Math.max(bestValue, value);
+            if (value > bestValue) {
+                bestValue = value;
+                if (value > alpha) updatePrincipalVariation(ply, move);
+            }
             alpha = Math.max(alpha, bestValue);
             
             if (alpha >= beta) {
@@ -230,6 +630,29 @@ public class ChessAI {
         return bestValue;
     }
 
+    // Guarda o hash da posição do ply e quantos lances reversíveis levaram a ela
+    private void recordPosition(Board board, Move move, int ply, boolean whiteTurn) {
+        boolean irreversible = move.getPiece() instanceof Pawn || move.getCapturedPiece() != null;
+        halfMoveClocks[ply] = irreversible ? 0 : halfMoveClocks[ply - 1] + 1;
+        positionKeys[keyBase + ply] = Zobrist.getDefault().hash(board, whiteTurn, board.getLastPawnDoubleMove());
+    }
+
+    // Procura o hash só até o último lance irreversível, de dois em dois plies (mesmo lado a jogar)
+    private boolean isDrawByRepetition(int ply) {
+        int clock = halfMoveClocks[ply];
+        if (clock >= 100) {
+            return true;
+        }
+        int index = keyBase + ply;
+        long key = positionKeys[index];
+        for (int back = 4; back <= clock && back <= index; back += 2) {
+            if (positionKeys[index - back] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void makeTestMove(Board board, Move move) {
         try {
             Piece piece = board.getPieceAt(move.getFrom());
@@ -237,9 +660,18 @@ public class ChessAI {
 
             Piece captured = board.getPieceAt(move.getTo());
             if (captured != null) board.removePiece(move.getTo());
+            else if (board.isEnPassantCapture(piece, move.getTo()))
+                board.removePiece(new Position(move.getFrom().getRow(), move.getTo().getColumn()));
+            board.setLastPawnDoubleMove(piece instanceof Pawn
+                    && Math.abs(move.getTo().getRow() - move.getFrom().getRow()) == 2 ? move.getTo() : null);
 
             board.removePiece(move.getFrom());
-            board.placePiece(piece, move.getTo());
+            piece.setHasMoved(true);
+            if (piece instanceof Pawn && (move.getTo().getRow() == 0 || move.getTo().getRow() == 7)) {
+                board.placePiece(Game.createPromotionPiece(board, move.getPromotionPiece(), piece.isWhite()), move.getTo());
+            } else {
+                board.placePiece(piece, move.getTo());
+            }
 
             if (piece instanceof King && Math.abs(move.getTo().getColumn() - move.getFrom().getColumn()) == 2) {
                 int row = move.getFrom().getRow();
@@ -258,117 +690,11 @@ public class ChessAI {
     }
 
     private boolean isKingInCheck(Board board, boolean whiteKing) {
-        Position kingPos = null;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = board.getPieceAt(new Position(r, c));
-                if (p instanceof King && p.isWhite() == whiteKing) {
-                    kingPos = new Position(r, c);
-                    break;
-                }
-            }
-            if (kingPos != null) break;
-        }
-        if (kingPos == null) return false;
-        return board.isUnderAttack(kingPos, !whiteKing);
+        return board.isKingInCheck(whiteKing);
     }
 
-    private int evaluateBoard(Board board, boolean isWhiteTurn) {
-        int value = 0;
-        int mobilityValue = 0;
-        int kingProtectionValue = 0;
-        int centerControlValue = 0;
-        
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position pos = new Position(r, c);
-                Piece p = board.getPieceAt(pos);
-                if (p != null) {
-                    int pieceValue = getPieceValue(p);
-                    boolean isPieceWhite = p.isWhite();
-                    
-                    if (p instanceof Pawn) {
-                        if (isPassedPawn(board, pos, isPieceWhite)) {
-                            pieceValue += 30 + (isPieceWhite ? (7 - r) * 5 : r * 5);
-                        }
-                        if (isPawnDoubled(board, pos, isPieceWhite)) {
-                            pieceValue -= 15;
-                        }
-                        if (isPawnIsolated(board, pos, isPieceWhite)) {
-                            pieceValue -= 10;
-                        }
-                        if (c >= 2 && c <= 5) {
-                            pieceValue += 5;
-                        }
-                    } else if (p instanceof Rook) {
-                        if (isColumnOpen(board, c)) {
-                            pieceValue += 25;
-                        } else if (isColumnSemiOpen(board, c, isPieceWhite)) {
-                            pieceValue += 15;
-                        }
-                        if (areRooksConnected(board, pos, isPieceWhite)) {
-                            pieceValue += 20;
-                        }
-                    } else if (p instanceof Knight) {
-                        int tableIndex = isPieceWhite ? r * 8 + c : (7 - r) * 8 + c;
-                        pieceValue += KNIGHT_POSITION_TABLE[tableIndex];
-                    } else if (p instanceof Bishop) {
-                        int diagonalLength = countDiagonalLength(board, pos);
-                        pieceValue += diagonalLength * 2;
-                        if (hasBishopPair(board, isPieceWhite)) {
-                            pieceValue += 30;
-                        }
-                    } else if (p instanceof Queen) {
-                        if ((r >= 2 && r <= 5) && (c >= 2 && c <= 5)) {
-                            pieceValue += 5;
-                        }
-                    } else if (p instanceof King) {
-                        if (isEndgame(board)) {
-                            double distanceFromCenter = Math.abs(3.5 - (double) r) + Math.abs(3.5 - (double) c);
-                            kingProtectionValue += isPieceWhite == isWhiteTurn ? 
-                                    (4 - distanceFromCenter) * 10 : 
-                                    -(4 - distanceFromCenter) * 10;
-                        } else {
-                            if ((isPieceWhite && r >= 6) || (!isPieceWhite && r <= 1)) {
-                                kingProtectionValue += isPieceWhite == isWhiteTurn ? 30 : -30;
-                            }
-                            int pawnShieldValue = countPawnShield(board, pos, isPieceWhite);
-                            kingProtectionValue += isPieceWhite == isWhiteTurn ? 
-                                    pawnShieldValue * 10 : 
-                                    -pawnShieldValue * 10;
-                        }
-                    }
-                    
-                    if ((r >= 2 && r <= 5) && (c >= 2 && c <= 5)) {
-                        centerControlValue += isPieceWhite == isWhiteTurn ? 8 : -8;
-                    }
-                    
-                    if (!(p instanceof Pawn) && !(p instanceof King)) {
-                        boolean isInStartPosition = (isPieceWhite && r == 7) || (!isPieceWhite && r == 0);
-                        if (!isInStartPosition) {
-                            pieceValue += isPieceWhite == isWhiteTurn ? 10 : -10;
-                        }
-                    }
-                    
-                    List<Position> possibleMoves = p.getPossibleMoves();
-                    if (possibleMoves != null) {
-                        long movesCount = possibleMoves.stream().filter(dest -> isValidMove(board, p, dest)).count();
-                        mobilityValue += isPieceWhite == isWhiteTurn ? movesCount : -movesCount;
-                    }
-                    
-                    value += isPieceWhite == isWhiteTurn ? pieceValue : -pieceValue;
-                }
-            }
-        }
-        
-        if (isKingInCheck(board, isWhiteTurn)) value -= 60;
-        if (isKingInCheck(board, !isWhiteTurn)) value += 50;
-        
-        value += mobilityValue * 0.5;
-        value += kingProtectionValue;
-        value += centerControlValue;
-        
-        return value;
+    private int evaluate(Board board, boolean isWhiteTurn, int ply) {
+        return evaluator.evaluate(board, isWhiteTurn, ply);
     }
 
     private int getPieceValue(Piece p) {
@@ -382,175 +708,8 @@ public class ChessAI {
         return 0;
     }
 
-    private boolean isColumnOpen(Board board, int col) {
-        for (int r = 0; r < 8; r++) {
-            Piece p = board.getPieceAt(new Position(r, col));
-            if (p instanceof Pawn) return false;
-        }
-        return true;
-    }
-    
-    private boolean isColumnSemiOpen(Board board, int col, boolean forWhite) {
-        boolean hasEnemyPawn = false;
-        for (int r = 0; r < 8; r++) {
-            Piece p = board.getPieceAt(new Position(r, col));
-            if (p instanceof Pawn) {
-                if (p.isWhite() == forWhite) return false;
-                hasEnemyPawn = true;
-            }
-        }
-        return hasEnemyPawn;
-    }
-    
-    private boolean isPawnDoubled(Board board, Position pos, boolean isWhite) {
-        int col = pos.getColumn();
-        for (int r = 0; r < 8; r++) {
-            if (r != pos.getRow()) {
-                Piece p = board.getPieceAt(new Position(r, col));
-                if (p instanceof Pawn && p.isWhite() == isWhite) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-    
-    private boolean isPawnIsolated(Board board, Position pos, boolean isWhite) {
-        int col = pos.getColumn();
-        boolean hasFriendlyPawnLeft = false;
-        if (col > 0) {
-            for (int r = 0; r < 8; r++) {
-                Piece p = board.getPieceAt(new Position(r, col - 1));
-                if (p instanceof Pawn && p.isWhite() == isWhite) {
-                    hasFriendlyPawnLeft = true;
-                    break;
-                }
-            }
-        }
-        boolean hasFriendlyPawnRight = false;
-        if (col < 7) {
-            for (int r = 0; r < 8; r++) {
-                Piece p = board.getPieceAt(new Position(r, col + 1));
-                if (p instanceof Pawn && p.isWhite() == isWhite) {
-                    hasFriendlyPawnRight = true;
-                    break;
-                }
-            }
-        }
-        return !hasFriendlyPawnLeft && !hasFriendlyPawnRight;
-    }
-    
-    private boolean areRooksConnected(Board board, Position rookPos, boolean isWhite) {
-        int row = rookPos.getRow();
-        int col = rookPos.getColumn();
-        
-        for (int c = 0; c < 8; c++) {
-            if (c != col) {
-                Piece p = board.getPieceAt(new Position(row, c));
-                if (p instanceof Rook && p.isWhite() == isWhite) {
-                    return true;
-                }
-            }
-        }
-        
-        for (int r = 0; r < 8; r++) {
-            if (r != row) {
-                Piece p = board.getPieceAt(new Position(r, col));
-                if (p instanceof Rook && p.isWhite() == isWhite) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
-    }
-    
-    private int countDiagonalLength(Board board, Position pos) {
-        int row = pos.getRow();
-        int col = pos.getColumn();
-        int count = 0;
-        
-        int[][] directions = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
-        
-        for (int[] dir : directions) {
-            int r = row + dir[0];
-            int c = col + dir[1];
-            int lineCount = 0;
-            
-            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
-                Piece p = board.getPieceAt(new Position(r, c));
-                if (p == null) {
-                    lineCount++;
-                } else {
-                    break;
-                }
-                r += dir[0];
-                c += dir[1];
-            }
-            
-            count += lineCount;
-        }
-        
-        return count;
-    }
-    
-    private boolean hasBishopPair(Board board, boolean isWhite) {
-        boolean hasLightSquareBishop = false;
-        boolean hasDarkSquareBishop = false;
-        
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position pos = new Position(r, c);
-                Piece p = board.getPieceAt(pos);
-                
-                if (p instanceof Bishop && p.isWhite() == isWhite) {
-                    if ((r + c) % 2 == 0) {
-                        hasDarkSquareBishop = true;
-                    } else {
-                        hasLightSquareBishop = true;
-                    }
-                }
-            }
-        }
-        
-        return hasLightSquareBishop && hasDarkSquareBishop;
-    }
-    
-    private int countPawnShield(Board board, Position kingPos, boolean isWhite) {
-        int row = kingPos.getRow();
-        int col = kingPos.getColumn();
-        int count = 0;
-        
-        int pawnRow = isWhite ? row - 1 : row + 1;
-        
-        if (pawnRow >= 0 && pawnRow < 8) {
-            for (int c = Math.max(0, col - 1); c <= Math.min(7, col + 1); c++) {
-                Piece p = board.getPieceAt(new Position(pawnRow, c));
-                if (p instanceof Pawn && p.isWhite() == isWhite) {
-                    count++;
-                }
-            }
-        }
-        
-        return count;
-    }
-
-    private boolean isPassedPawn(Board board, Position pos, boolean isWhite) {
-        int dir = isWhite ? -1 : 1;
-        for (int r = pos.getRow() + dir; r >= 0 && r < 8; r += dir) {
-            for (int c = pos.getColumn() - 1; c <= pos.getColumn() + 1; c++) {
-                if (c >= 0 && c < 8) {
-                    Piece p = board.getPieceAt(new Position(r, c));
-                    if (p instanceof Pawn && p.isWhite() != isWhite) return false;
-                }
-            }
-        }
-        return true;
-    }
-
     private List<Move> getAllValidMoves(Board board, boolean forWhite) {
         List<Move> moves = new ArrayList<>();
-        System.out.println("AI: Gerando movimentos válidos...");
         for (int r = 0; r < 8; r++) {
             for (int c = 0; c < 8; c++) {
                 Position pos = new Position(r, c);
@@ -567,26 +726,10 @@ public class ChessAI {
                 }
             }
         }
-        System.out.println("AI: Concluído a geração de movimentos. Total de movimentos: " + moves.size());
         return moves;
     }
 
     private boolean isValidMove(Board board, Piece piece, Position destination) {
-        System.out.println("AI: Verificando se o movimento de " + piece.getSymbol() + " de " + piece.getPosition() + " para " + destination + " é válido...");
-        
-        Board temp = board.clone();
-        Piece tempPiece = temp.getPieceAt(piece.getPosition());
-        if (tempPiece == null) {
-            System.err.println("AI: Erro crítico - Peça não encontrada no tabuleiro clonado!");
-            return false;
-        }
-
-        // Simula o movimento no tabuleiro temporário
-        Piece captured = temp.getPieceAt(destination);
-        if (captured != null) temp.removePiece(destination);
-        temp.removePiece(piece.getPosition());
-        temp.placePiece(tempPiece, destination);
-        
-        return !isKingInCheck(temp, piece.isWhite());
+        return board.isLegalMove(piece, destination);
     }
 }
\ No newline at end of file
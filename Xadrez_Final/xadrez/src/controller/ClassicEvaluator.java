@@ -0,0 +1,315 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.List;
+import model.board.Board;
+import model.board.Position;
+import model.pieces.*;
+
+// Avaliação clássica da IA, usada sem interface gráfica nem Game (também pelo TexelTuner).
+// A pontuação é linear nos pesos: trace() preenche o coeficiente de cada peso e evaluate() faz o produto.
+public class ClassicEvaluator implements Evaluator {
+    private static final int ENDGAME_MATERIAL = 1500;
+
+    private final EvalWeights weights;
+    private final double[] coefficients = new double[EvalWeights.COUNT];
+
+    public ClassicEvaluator() {
+        this(EvalWeights.defaults());
+    }
+
+    public ClassicEvaluator(EvalWeights weights) {
+        this.weights = weights;
+    }
+
+    public EvalWeights getWeights() {
+        return weights;
+    }
+
+    @Override
+    public int evaluate(Board board, boolean whiteToMove, int ply) {
+        Arrays.fill(coefficients, 0);
+        trace(board, whiteToMove, coefficients);
+        return (int) weights.dot(coefficients);
+    }
+
+    // Soma ao vetor o coeficiente de cada peso, do ponto de vista de quem joga
+    public void trace(Board board, boolean isWhiteTurn, double[] trace) {
+        boolean endgame = isEndgame(board);
+
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Position pos = new Position(r, c);
+                Piece p = board.getPieceAt(pos);
+                if (p == null) continue;
+                boolean isPieceWhite = p.isWhite();
+                int sign = isPieceWhite == isWhiteTurn ? 1 : -1;
+
+                if (p instanceof Pawn) {
+                    trace[EvalWeights.PAWN_VALUE] += sign;
+                    if (isPassedPawn(board, pos, isPieceWhite)) {
+                        trace[EvalWeights.PASSED_PAWN] += sign;
+                        trace[EvalWeights.PASSED_PAWN_RANK] += sign * (isPieceWhite ? 7 - r : r);
+                    }
+                    if (isPawnDoubled(board, pos, isPieceWhite)) {
+                        trace[EvalWeights.DOUBLED_PAWN] += sign;
+                    }
+                    if (isPawnIsolated(board, pos, isPieceWhite)) {
+                        trace[EvalWeights.ISOLATED_PAWN] += sign;
+                    }
+                    if (c >= 2 && c <= 5) {
+                        trace[EvalWeights.CENTRAL_PAWN] += sign;
+                    }
+                } else if (p instanceof Rook) {
+                    trace[EvalWeights.ROOK_VALUE] += sign;
+                    if (isColumnOpen(board, c)) {
+                        trace[EvalWeights.ROOK_OPEN_FILE] += sign;
+                    } else if (isColumnSemiOpen(board, c, isPieceWhite)) {
+                        trace[EvalWeights.ROOK_SEMI_OPEN_FILE] += sign;
+                    }
+                    if (areRooksConnected(board, pos, isPieceWhite)) {
+                        trace[EvalWeights.CONNECTED_ROOKS] += sign;
+                    }
+                } else if (p instanceof Knight) {
+                    trace[EvalWeights.KNIGHT_VALUE] += sign;
+                    int tableIndex = isPieceWhite ? r * 8 + c : (7 - r) * 8 + c;
+                    trace[EvalWeights.KNIGHT_TABLE + tableIndex] += sign;
+                } else if (p instanceof Bishop) {
+                    trace[EvalWeights.BISHOP_VALUE] += sign;
+                    trace[EvalWeights.BISHOP_DIAGONAL] += sign * countDiagonalLength(board, pos);
+                    if (hasBishopPair(board, isPieceWhite)) {
+                        trace[EvalWeights.BISHOP_PAIR] += sign;
+                    }
+                } else if (p instanceof Queen) {
+                    trace[EvalWeights.QUEEN_VALUE] += sign;
+                    if ((r >= 2 && r <= 5) && (c >= 2 && c <= 5)) {
+                        trace[EvalWeights.QUEEN_CENTER] += sign;
+                    }
+                } else if (p instanceof King) {
+                    if (endgame) {
+                        double distanceFromCenter = Math.abs(3.5 - r) + Math.abs(3.5 - c);
+                        trace[EvalWeights.KING_CENTER_ENDGAME] += sign * (4 - distanceFromCenter);
+                    } else {
+                        if ((isPieceWhite && r >= 6) || (!isPieceWhite && r <= 1)) {
+                            trace[EvalWeights.KING_BACK_RANK] += sign;
+                        }
+                        trace[EvalWeights.KING_PAWN_SHIELD] += sign * countPawnShield(board, pos, isPieceWhite);
+                    }
+                }
+
+                if ((r >= 2 && r <= 5) && (c >= 2 && c <= 5)) {
+                    trace[EvalWeights.CENTER_CONTROL] += sign;
+                }
+
+                if (!(p instanceof Pawn) && !(p instanceof King)) {
+                    boolean isInStartPosition = (isPieceWhite && r == 7) || (!isPieceWhite && r == 0);
+                    if (!isInStartPosition) {
+                        trace[EvalWeights.DEVELOPMENT] += sign;
+                    }
+                }
+
+                List<Position> possibleMoves = p.getPossibleMoves();
+                if (possibleMoves != null) {
+                    long movesCount = possibleMoves.stream().filter(dest -> board.isLegalMove(p, dest)).count();
+                    trace[EvalWeights.MOBILITY] += sign * movesCount * 0.5;
+                }
+            }
+        }
+
+        traceMopUp(board, isWhiteTurn, trace);
+
+        if (board.isKingInCheck(isWhiteTurn)) trace[EvalWeights.IN_CHECK] += 1;
+        if (board.isKingInCheck(!isWhiteTurn)) trace[EvalWeights.GIVING_CHECK] += 1;
+    }
+
+    private boolean isEndgame(Board board) {
+        int totalMaterial = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.getPieceAt(new Position(r, c));
+                if (p instanceof Pawn) totalMaterial += weights.get(EvalWeights.PAWN_VALUE);
+                else if (p instanceof Knight) totalMaterial += weights.get(EvalWeights.KNIGHT_VALUE);
+                else if (p instanceof Bishop) totalMaterial += weights.get(EvalWeights.BISHOP_VALUE);
+                else if (p instanceof Rook) totalMaterial += weights.get(EvalWeights.ROOK_VALUE);
+                else if (p instanceof Queen) totalMaterial += weights.get(EvalWeights.QUEEN_VALUE);
+            }
+        }
+        return totalMaterial < ENDGAME_MATERIAL;
+    }
+
+    // Contra o rei sozinho: empurra o rei adversário para a borda e aproxima o próprio rei
+    private void traceMopUp(Board board, boolean isWhiteTurn, double[] trace) {
+        Position whiteKing = null;
+        Position blackKing = null;
+        boolean whiteBare = true;
+        boolean blackBare = true;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.getPieceAt(new Position(r, c));
+                if (p instanceof King) {
+                    if (p.isWhite()) whiteKing = p.getPosition();
+                    else blackKing = p.getPosition();
+                } else if (p != null) {
+                    if (p.isWhite()) whiteBare = false;
+                    else blackBare = false;
+                }
+            }
+        }
+        if (whiteKing == null || blackKing == null || whiteBare == blackBare) {
+            return;
+        }
+
+        Position loserKing = whiteBare ? whiteKing : blackKing;
+        int centerDistance = Math.max(3 - loserKing.getRow(), loserKing.getRow() - 4)
+                + Math.max(3 - loserKing.getColumn(), loserKing.getColumn() - 4);
+        int kingDistance = Math.abs(whiteKing.getRow() - blackKing.getRow())
+                + Math.abs(whiteKing.getColumn() - blackKing.getColumn());
+        int sign = whiteBare == isWhiteTurn ? -1 : 1;
+        trace[EvalWeights.MOP_UP_EDGE] += sign * centerDistance;
+        trace[EvalWeights.MOP_UP_KINGS] += sign * (14 - kingDistance);
+    }
+
+    private boolean isColumnOpen(Board board, int col) {
+        for (int r = 0; r < 8; r++) {
+            Piece p = board.getPieceAt(new Position(r, col));
+            if (p instanceof Pawn) return false;
+        }
+        return true;
+    }
+
+    private boolean isColumnSemiOpen(Board board, int col, boolean forWhite) {
+        boolean hasEnemyPawn = false;
+        for (int r = 0; r < 8; r++) {
+            Piece p = board.getPieceAt(new Position(r, col));
+            if (p instanceof Pawn) {
+                if (p.isWhite() == forWhite) return false;
+                hasEnemyPawn = true;
+            }
+        }
+        return hasEnemyPawn;
+    }
+
+    private boolean isPawnDoubled(Board board, Position pos, boolean isWhite) {
+        int col = pos.getColumn();
+        for (int r = 0; r < 8; r++) {
+            if (r != pos.getRow()) {
+                Piece p = board.getPieceAt(new Position(r, col));
+                if (p instanceof Pawn && p.isWhite() == isWhite) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isPawnIsolated(Board board, Position pos, boolean isWhite) {
+        int col = pos.getColumn();
+        for (int c = col - 1; c <= col + 1; c += 2) {
+            if (c < 0 || c > 7) continue;
+            for (int r = 0; r < 8; r++) {
+                Piece p = board.getPieceAt(new Position(r, c));
+                if (p instanceof Pawn && p.isWhite() == isWhite) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean areRooksConnected(Board board, Position rookPos, boolean isWhite) {
+        int row = rookPos.getRow();
+        int col = rookPos.getColumn();
+
+        for (int c = 0; c < 8; c++) {
+            if (c != col) {
+                Piece p = board.getPieceAt(new Position(row, c));
+                if (p instanceof Rook && p.isWhite() == isWhite) {
+                    return true;
+                }
+            }
+        }
+
+        for (int r = 0; r < 8; r++) {
+            if (r != row) {
+                Piece p = board.getPieceAt(new Position(r, col));
+                if (p instanceof Rook && p.isWhite() == isWhite) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private int countDiagonalLength(Board board, Position pos) {
+        int row = pos.getRow();
+        int col = pos.getColumn();
+        int count = 0;
+
+        int[][] directions = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+        for (int[] dir : directions) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8 && board.getPieceAt(new Position(r, c)) == null) {
+                count++;
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+
+        return count;
+    }
+
+    private boolean hasBishopPair(Board board, boolean isWhite) {
+        boolean hasLightSquareBishop = false;
+        boolean hasDarkSquareBishop = false;
+
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.getPieceAt(new Position(r, c));
+                if (p instanceof Bishop && p.isWhite() == isWhite) {
+                    if ((r + c) % 2 == 0) {
+                        hasDarkSquareBishop = true;
+                    } else {
+                        hasLightSquareBishop = true;
+                    }
+                }
+            }
+        }
+
+        return hasLightSquareBishop && hasDarkSquareBishop;
+    }
+
+    private int countPawnShield(Board board, Position kingPos, boolean isWhite) {
+        int row = kingPos.getRow();
+        int col = kingPos.getColumn();
+        int count = 0;
+
+        int pawnRow = isWhite ? row - 1 : row + 1;
+
+        if (pawnRow >= 0 && pawnRow < 8) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(7, col + 1); c++) {
+                Piece p = board.getPieceAt(new Position(pawnRow, c));
+                if (p instanceof Pawn && p.isWhite() == isWhite) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private boolean isPassedPawn(Board board, Position pos, boolean isWhite) {
+        int dir = isWhite ? -1 : 1;
+        for (int r = pos.getRow() + dir; r >= 0 && r < 8; r += dir) {
+            for (int c = pos.getColumn() - 1; c <= pos.getColumn() + 1; c++) {
+                if (c >= 0 && c < 8) {
+                    Piece p = board.getPieceAt(new Position(r, c));
+                    if (p instanceof Pawn && p.isWhite() != isWhite) return false;
+                }
+            }
+        }
+        return true;
+    }
+}
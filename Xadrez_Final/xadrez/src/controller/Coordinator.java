@@ -0,0 +1,261 @@
+package controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Distribui partidas de treino ou análises entre vários processos Worker, pela rede, sem interface gráfica:
+//   java controller.Coordinator play <aberturas | -> <saída.pgn> [profundidade] [porta] [lote] [tempo limite em s]
+//   java controller.Coordinator analyse <arquivo de FENs> <saída.epd> [profundidade] [porta] [lote] [tempo limite em s]
+// Em "play" cada abertura (como no Tournament; "-" usa a lista fixa) é jogada até o fim pela IA contra
+// ela mesma; em "analyse" cada posição é analisada até a profundidade pedida. O trabalho é dividido em
+// lotes, que os workers pedem um de cada vez; os resultados são gravados na ordem em que chegam.
+// Um lote cujo worker cai, ou que não volta dentro do tempo limite, volta para a fila e é entregue a
+// outro worker, até MAX_ATTEMPTS tentativas. Como cada lote é independente, o coordenador só faz E/S.
+//
+// Protocolo (DataInput/DataOutputStream; textos em writeUTF):
+//   worker:      MAGIC, VERSION (int, int) ao conectar; depois NEXT (byte) a cada pedido de lote
+//   coordenador: BATCH, id (int), tipo (byte), profundidade (int), n (int), n itens
+//                | WAIT, milissegundos (int) se todos os lotes restantes estão com outros workers
+//                | DONE se não há mais trabalho
+//   worker:      RESULT, id (int), n (int), n resultados (um por item, na mesma ordem; vazio se o item é inválido)
+public class Coordinator {
+    static final int MAGIC = 0x58445731; // "XDW1"
+    static final int VERSION = 1;
+    static final byte NEXT = 1;
+    static final byte RESULT = 2;
+    static final byte BATCH = 1;
+    static final byte WAIT = 2;
+    static final byte DONE = 3;
+    static final byte PLAY = 1;
+    static final byte ANALYSE = 2;
+
+    private static final int DEFAULT_PORT = 9099;
+    private static final int DEFAULT_DEPTH = 3;
+    private static final int DEFAULT_BATCH_SIZE = 16;
+    private static final int DEFAULT_TIMEOUT_S = 600;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int WAIT_MS = 1000;
+
+    private final byte kind;
+    private final int depth;
+    private final int timeoutMs;
+    private final List<Batch> batches = new ArrayList<>();
+    private final Deque<Batch> pending = new ArrayDeque<>();
+    private final BufferedWriter output;
+    private int finished;
+    private int failed;
+    private int results;
+    private int invalid;
+
+    // Um lote de itens (aberturas ou FENs) e quantas vezes já foi entregue
+    private static final class Batch {
+        final int id;
+        final List<String> items;
+        int attempts;
+        boolean done;
+
+        Batch(int id, List<String> items) {
+            this.id = id;
+            this.items = items;
+        }
+    }
+
+    private Coordinator(byte kind, List<String> items, int depth, int batchSize, int timeoutMs,
+            BufferedWriter output) {
+        this.kind = kind;
+        this.depth = depth;
+        this.timeoutMs = timeoutMs;
+        this.output = output;
+        for (int first = 0; first < items.size(); first += batchSize) {
+            Batch batch = new Batch(batches.size(),
+                    new ArrayList<>(items.subList(first, Math.min(items.size(), first + batchSize))));
+            batches.add(batch);
+            pending.add(batch);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3 || !(args[0].equals("play") || args[0].equals("analyse"))) {
+            System.err.println("Uso: java controller.Coordinator play <aberturas | -> <saída.pgn> [profundidade] [porta] [lote] [tempo limite em s]");
+            System.err.println("     java controller.Coordinator analyse <arquivo de FENs> <saída.epd> [profundidade] [porta] [lote] [tempo limite em s]");
+            System.exit(1);
+        }
+        byte kind = args[0].equals("play") ? PLAY : ANALYSE;
+        List<String> items;
+        if (kind == PLAY) {
+            items = args[1].equals("-") ? Tournament.defaultOpenings() : Tournament.loadOpenings(Paths.get(args[1]));
+        } else {
+            items = new ArrayList<>();
+            for (String line : Files.readAllLines(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+                if (!line.isBlank() && !line.startsWith("#")) items.add(line.trim());
+            }
+        }
+        Path outputPath = Paths.get(args[2]);
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_DEPTH;
+        int port = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_PORT;
+        int batchSize = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_BATCH_SIZE;
+        int timeoutMs = (args.length > 6 ? Integer.parseInt(args[6]) : DEFAULT_TIMEOUT_S) * 1000;
+
+        long start = System.currentTimeMillis();
+        try (BufferedWriter output = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8);
+                ServerSocket server = new ServerSocket(port)) {
+            Coordinator coordinator = new Coordinator(kind, items, depth, batchSize, timeoutMs, output);
+            System.out.printf("%d itens em %d lotes; aguardando workers na porta %d%n", items.size(),
+                    coordinator.batches.size(), server.getLocalPort());
+            Thread acceptor = new Thread(() -> coordinator.accept(server), "coordinator-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            coordinator.awaitCompletion();
+            System.out.printf("%d resultados gravados em %s (%d lotes com falha, %d itens inválidos) em %d s%n",
+                    coordinator.results, outputPath, coordinator.failed, coordinator.invalid,
+                    (System.currentTimeMillis() - start) / 1000);
+        }
+    }
+
+    private void accept(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread thread = new Thread(() -> serve(socket), "coordinator-" + socket.getRemoteSocketAddress());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.err.println("Erro ao aceitar worker: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private synchronized void awaitCompletion() throws InterruptedException {
+        while (finished + failed < batches.size()) {
+            wait();
+        }
+        // Os workers que pedirem mais trabalho recebem DONE até o servidor fechar
+    }
+
+    // Atende um worker: entrega lotes enquanto houver. Se a conexão cair ou o resultado não chegar
+    // dentro do tempo limite, o lote em andamento volta para a fila.
+    private void serve(Socket socket) {
+        Batch current = null;
+        String worker = String.valueOf(socket.getRemoteSocketAddress());
+        try (Socket connection = socket) {
+            connection.setSoTimeout(timeoutMs);
+            connection.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("protocolo desconhecido");
+            }
+            while (true) {
+                byte request = in.readByte();
+                if (request == NEXT) {
+                    current = nextBatch();
+                    if (current != null) {
+                        out.writeByte(BATCH);
+                        out.writeInt(current.id);
+                        out.writeByte(kind);
+                        out.writeInt(depth);
+                        out.writeInt(current.items.size());
+                        for (String item : current.items) {
+                            out.writeUTF(item);
+                        }
+                    } else if (isComplete()) {
+                        out.writeByte(DONE);
+                        out.flush();
+                        return;
+                    } else {
+                        out.writeByte(WAIT);
+                        out.writeInt(WAIT_MS);
+                    }
+                    out.flush();
+                } else if (request == RESULT) {
+                    int id = in.readInt();
+                    int count = in.readInt();
+                    List<String> lines = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        lines.add(in.readUTF());
+                    }
+                    if (current == null || current.id != id || count != current.items.size()) {
+                        throw new IOException("resultado inesperado do lote " + id);
+                    }
+                    complete(current, lines);
+                    current = null;
+                } else {
+                    throw new IOException("pedido desconhecido: " + request);
+                }
+            }
+        } catch (SocketException | EOFException e) {
+            if (current != null) System.err.println("Worker " + worker + " desconectou");
+        } catch (IOException e) {
+            System.err.println("Worker " + worker + ": " + e.getMessage());
+        } finally {
+            if (current != null) {
+                release(current);
+            }
+        }
+    }
+
+    private synchronized Batch nextBatch() {
+        Batch batch = pending.poll();
+        if (batch != null) {
+            batch.attempts++;
+        }
+        return batch;
+    }
+
+    private synchronized boolean isComplete() {
+        return finished + failed == batches.size();
+    }
+
+    // Lote perdido: volta para a fila, ou é dado como falho depois de MAX_ATTEMPTS entregas
+    private synchronized void release(Batch batch) {
+        if (batch.done) return;
+        if (batch.attempts < MAX_ATTEMPTS) {
+            pending.addFirst(batch);
+        } else {
+            batch.done = true;
+            failed++;
+            System.err.println("Lote " + batch.id + " abandonado depois de " + batch.attempts + " tentativas");
+            notifyAll();
+        }
+    }
+
+    private synchronized void complete(Batch batch, List<String> lines) throws IOException {
+        if (batch.done) return;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isEmpty()) {
+                System.err.println("Item inválido no lote " + batch.id + ": " + batch.items.get(i));
+                invalid++;
+                continue;
+            }
+            output.write(line);
+            output.write(kind == PLAY ? "\n\n" : "\n");
+            results++;
+        }
+        output.flush();
+        batch.done = true;
+        finished++;
+        if (finished % 10 == 0 || finished + failed == batches.size()) {
+            System.out.printf("%d/%d lotes concluídos%n", finished, batches.size());
+        }
+        notifyAll();
+    }
+}
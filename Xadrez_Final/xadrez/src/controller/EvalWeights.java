@@ -0,0 +1,148 @@
+package controller;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+// Vetor de pesos da avaliação clássica. Cada termo da avaliação é peso * coeficiente, então o
+// ajuste (TexelTuner) pode alterar qualquer peso sem conhecer o tabuleiro.
+// Arquivo de pesos: uma linha "NOME = valor" por peso; linhas vazias e comentários (#) são ignorados.
+public class EvalWeights {
+    public static final int PAWN_VALUE = 0;
+    public static final int KNIGHT_VALUE = 1;
+    public static final int BISHOP_VALUE = 2;
+    public static final int ROOK_VALUE = 3;
+    public static final int QUEEN_VALUE = 4;
+    public static final int PASSED_PAWN = 5;
+    public static final int PASSED_PAWN_RANK = 6;
+    public static final int DOUBLED_PAWN = 7;
+    public static final int ISOLATED_PAWN = 8;
+    public static final int CENTRAL_PAWN = 9;
+    public static final int ROOK_OPEN_FILE = 10;
+    public static final int ROOK_SEMI_OPEN_FILE = 11;
+    public static final int CONNECTED_ROOKS = 12;
+    public static final int BISHOP_DIAGONAL = 13;
+    public static final int BISHOP_PAIR = 14;
+    public static final int QUEEN_CENTER = 15;
+    public static final int KING_CENTER_ENDGAME = 16;
+    public static final int KING_BACK_RANK = 17;
+    public static final int KING_PAWN_SHIELD = 18;
+    public static final int CENTER_CONTROL = 19;
+    public static final int DEVELOPMENT = 20;
+    public static final int MOBILITY = 21; // em meios pontos por lance
+    public static final int IN_CHECK = 22;
+    public static final int GIVING_CHECK = 23;
+    public static final int MOP_UP_EDGE = 24;
+    public static final int MOP_UP_KINGS = 25;
+    public static final int KNIGHT_TABLE = 26; // 64 pesos, casa do ponto de vista das brancas
+    public static final int COUNT = KNIGHT_TABLE + 64;
+
+    private static final String[] NAMES = new String[COUNT];
+    private static final int[] DEFAULTS = new int[COUNT];
+
+    static {
+        List<String> names = Arrays.asList("PAWN_VALUE", "KNIGHT_VALUE", "BISHOP_VALUE", "ROOK_VALUE",
+                "QUEEN_VALUE", "PASSED_PAWN", "PASSED_PAWN_RANK", "DOUBLED_PAWN", "ISOLATED_PAWN",
+                "CENTRAL_PAWN", "ROOK_OPEN_FILE", "ROOK_SEMI_OPEN_FILE", "CONNECTED_ROOKS", "BISHOP_DIAGONAL",
+                "BISHOP_PAIR", "QUEEN_CENTER", "KING_CENTER_ENDGAME", "KING_BACK_RANK", "KING_PAWN_SHIELD",
+                "CENTER_CONTROL", "DEVELOPMENT", "MOBILITY", "IN_CHECK", "GIVING_CHECK", "MOP_UP_EDGE",
+                "MOP_UP_KINGS");
+        int[] values = {100, 320, 330, 500, 900, 30, 5, -15, -10, 5, 25, 15, 20, 2, 30, 5, 10, 30, 10, 8, 10,
+                1, -60, 50, 10, 4};
+        int[] knightTable = {
+            -50,-40,-30,-30,-30,-30,-40,-50,
+            -40,-20,  0,  0,  0,  0,-20,-40,
+            -30,  0, 10, 15, 15, 10,  0,-30,
+            -30,  5, 15, 20, 20, 15,  5,-30,
+            -30,  0, 15, 20, 20, 15,  0,-30,
+            -30,  5, 10, 15, 15, 10,  5,-30,
+            -40,-20,  0,  5,  5,  0,-20,-40,
+            -50,-40,-30,-30,-30,-30,-40,-50
+        };
+        for (int i = 0; i < KNIGHT_TABLE; i++) {
+            NAMES[i] = names.get(i);
+            DEFAULTS[i] = values[i];
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            NAMES[KNIGHT_TABLE + sq] = "KNIGHT_TABLE_" + sq;
+            DEFAULTS[KNIGHT_TABLE + sq] = knightTable[sq];
+        }
+    }
+
+    private final int[] values;
+
+    private EvalWeights(int[] values) {
+        this.values = values;
+    }
+
+    public static EvalWeights defaults() {
+        return new EvalWeights(DEFAULTS.clone());
+    }
+
+    // Pesos ausentes no arquivo ficam com o valor padrão
+    public static EvalWeights load(Path path) throws IOException {
+        EvalWeights weights = defaults();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int separator = line.indexOf('=');
+            int index = separator < 0 ? -1 : indexOf(line.substring(0, separator).trim());
+            if (index < 0) {
+                throw new IOException("Linha " + lineNumber + " inválida em " + path + ": " + line);
+            }
+            try {
+                weights.values[index] = Integer.parseInt(line.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Valor inválido na linha " + lineNumber + " de " + path, e);
+            }
+        }
+        return weights;
+    }
+
+    public void save(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < COUNT; i++) {
+                writer.write(NAMES[i] + " = " + values[i]);
+                writer.newLine();
+            }
+        }
+    }
+
+    public static String getName(int index) {
+        return NAMES[index];
+    }
+
+    public static int indexOf(String name) {
+        for (int i = 0; i < COUNT; i++) {
+            if (NAMES[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public void set(int index, int value) {
+        values[index] = value;
+    }
+
+    public EvalWeights copy() {
+        return new EvalWeights(values.clone());
+    }
+
+    // Soma de peso * coeficiente
+    public double dot(double[] coefficients) {
+        double total = 0;
+        for (int i = 0; i < COUNT; i++) {
+            total += values[i] * coefficients[i];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,19 @@
+package controller;
+
+import model.board.Board;
+import model.board.Move;
+
+// Avaliação plugável da busca. O estado incremental é indexado pelo ply: makeMove deriva o estado do
+// ply + 1 a partir do ply atual, e desfazer o lance é só voltar ao ply anterior.
+public interface Evaluator {
+    // Pontuação do ponto de vista de quem joga
+    int evaluate(Board board, boolean whiteToMove, int ply);
+
+    // Prepara o estado da raiz da busca (ply 0)
+    default void reset(Board board) {
+    }
+
+    // Atualiza o estado depois do lance feito no ply indicado
+    default void makeMove(Move move, int ply) {
+    }
+}
@@ -0,0 +1,149 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Arquivo de experiência da IA: tabela hash de tamanho fixo, mapeada em memória para leitura e escrita,
+// com o resultado de buscas profundas de partidas anteriores (hash da posição, lance, profundidade, pontuação).
+// Cada entrada tem 16 bytes: chave (8), lance (2: origem * 64 + destino), profundidade (1), ocupada (1), pontuação (4).
+public class ExperienceFile implements Closeable {
+    public static final int DEFAULT_SLOTS = 1 << 16;
+
+    private static final int MAGIC = 0x58455850; // "XEXP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 16;
+    private static final int PROBE_LIMIT = 8;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+
+    public static final class Entry {
+        private final int move;
+        private final int depth;
+        private final int score;
+
+        Entry(int move, int depth, int score) {
+            this.move = move;
+            this.depth = depth;
+            this.score = score;
+        }
+
+        public int getFromSquare() {
+            return move >>> 6;
+        }
+
+        public int getToSquare() {
+            return move & 63;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+
+    private ExperienceFile(FileChannel channel, MappedByteBuffer buffer, int slots) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.slots = slots;
+    }
+
+    // Abre o arquivo existente ou cria um novo com o número de entradas indicado
+    public static ExperienceFile open(Path path, int slotsIfNew) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean isNew = channel.size() == 0;
+            int slots = isNew ? slotsIfNew : (int) ((channel.size() - HEADER_SIZE) / SLOT_SIZE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) slots * SLOT_SIZE);
+            if (isNew) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, slots);
+            } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != slots) {
+                throw new IOException("Arquivo de experiência inválido: " + path);
+            }
+            return new ExperienceFile(channel, buffer, slots);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public synchronized Entry lookup(long key) {
+        int slot = firstSlot(key);
+        for (int i = 0; i < PROBE_LIMIT; i++) {
+            int offset = offset((slot + i) % slots);
+            if (buffer.get(offset + 11) == 0) {
+                return null;
+            }
+            if (buffer.getLong(offset) == key) {
+                return new Entry(buffer.getShort(offset + 8) & 0xFFFF, buffer.get(offset + 10) & 0xFF,
+                        buffer.getInt(offset + 12));
+            }
+        }
+        return null;
+    }
+
+    // Grava o resultado; uma entrada da mesma posição só é substituída por uma busca igual ou mais profunda,
+    // e sem espaço livre na vizinhança a entrada mais rasa é descartada
+    public synchronized void store(long key, int fromSquare, int toSquare, int depth, int score) {
+        int slot = firstSlot(key);
+        int target = -1;
+        int targetDepth = Integer.MAX_VALUE;
+        for (int i = 0; i < PROBE_LIMIT; i++) {
+            int offset = offset((slot + i) % slots);
+            boolean used = buffer.get(offset + 11) != 0;
+            if (!used || buffer.getLong(offset) == key) {
+                if (used && (buffer.get(offset + 10) & 0xFF) > depth) {
+                    return;
+                }
+                target = offset;
+                targetDepth = -1;
+                break;
+            }
+            int slotDepth = buffer.get(offset + 10) & 0xFF;
+            if (slotDepth < targetDepth) {
+                targetDepth = slotDepth;
+                target = offset;
+            }
+        }
+        if (targetDepth > depth) {
+            return;
+        }
+
+        buffer.putLong(target, key);
+        buffer.putShort(target + 8, (short) (fromSquare * 64 + toSquare));
+        buffer.put(target + 10, (byte) Math.min(depth, 255));
+        buffer.put(target + 11, (byte) 1);
+        buffer.putInt(target + 12, score);
+    }
+
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private int firstSlot(long key) {
+        return (int) Long.remainderUnsigned(key, slots);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+}
@@ -1,26 +1,51 @@
 package controller;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import javax.swing.JOptionPane;
 import model.board.Board;
 import model.board.Move;
 import model.board.Position;
+import model.board.Zobrist;
 import model.pieces.*;
 
 public class Game {
+    public static final char NO_PROMOTION_CHOICE = '\0';
+    private static final String PROMOTION_PIECES = "QRBN";
+    private static final int SAVE_MAGIC = 0x58474D31; // "XGM1"
+    private static final short SAVE_VERSION = 1;
+    private static final short SAVE_CUSTOM_START = 1;
+    private static final int SAVE_HEADER_SIZE = 8;
+    private static final long MAX_SAVE_SIZE = 1 << 20;
+
     private Board board;
     private boolean isWhiteTurn;
     private boolean isGameOver;
     private Piece selectedPiece;
-    private Position lastPawnDoubleMove;
     private int movesSinceLastCaptureOrPawnMove;
+    private int fullMoveNumber = 1;
+    private String startFen; // null = posição inicial padrão
+    private GameJournal journal;
+    private PromotionStrategy promotionStrategy = PromotionStrategy.ALWAYS_QUEEN;
     private List<Move> moveHistory = new ArrayList<>();
+    private final List<Move> redoMoves = new ArrayList<>(); // o próximo a refazer fica no fim
+    // Estado que um lance não permite deduzir ao ser desfeito, um int por ply (o de antes do lance):
+    // bits 0..6 = casa do peão do en passant + 1 (0 = nenhum), 7..22 = lances sem captura nem
+    // movimento de peão, 23 = partida encerrada. Peça capturada, promoção e primeiro movimento ficam no Move.
+    private int[] plyStates = new int[64];
+    private long[] positionKeys = new long[64]; // hash da posição em cada ply, para detectar repetições
+    // Lances legais da posição atual, calculados uma vez e descartados a cada lance feito ou desfeito.
+    // legalTargets[origem] tem um bit por casa de destino (linha * 8 + coluna), para consultas diretas.
+    private List<Move> legalMoves;
+    private final long[] legalTargets = new long[64];
 
     public Game() {
         board = new Board();
@@ -28,6 +53,157 @@ public class Game {
         isGameOver = false;
         setupPieces();
         moveHistory = new ArrayList<>();
+        positionKeys[0] = getPositionKey();
+    }
+
+    // Partida sem a posição inicial, preenchida por fromFen
+    private Game(Board board) {
+        this.board = board;
+        isWhiteTurn = true;
+        isGameOver = false;
+    }
+
+    // Posição em FEN. Os contadores de lances são opcionais (como em EPD) e o texto depois dos campos
+    // reconhecidos é ignorado. A leitura percorre o texto caractere a caractere, sem dividir em campos.
+    public static Game fromFen(CharSequence fen) {
+        Game game = new Game(new Board());
+        int index = game.board.readFenPlacement(fen, skipSpaces(fen, 0));
+
+        index = skipSpaces(fen, index);
+        if (index >= fen.length() || (fen.charAt(index) != 'w' && fen.charAt(index) != 'b')) {
+            throw invalidFen(fen, index);
+        }
+        game.isWhiteTurn = fen.charAt(index++) == 'w';
+
+        index = skipSpaces(fen, index);
+        if (index < fen.length()) {
+            index = game.readCastlingRights(fen, index);
+        }
+
+        index = skipSpaces(fen, index);
+        if (index < fen.length() && fen.charAt(index) != '-') {
+            index = game.readEnPassant(fen, index);
+        } else {
+            index++;
+        }
+
+        index = skipSpaces(fen, index);
+        if (index < fen.length() && Character.isDigit(fen.charAt(index))) {
+            int value = 0;
+            for (; index < fen.length() && Character.isDigit(fen.charAt(index)); index++) {
+                value = value * 10 + fen.charAt(index) - '0';
+            }
+            game.movesSinceLastCaptureOrPawnMove = value;
+
+            index = skipSpaces(fen, index);
+            if (index < fen.length() && Character.isDigit(fen.charAt(index))) {
+                value = 0;
+                for (; index < fen.length() && Character.isDigit(fen.charAt(index)); index++) {
+                    value = value * 10 + fen.charAt(index) - '0';
+                }
+                game.fullMoveNumber = Math.max(1, value);
+            }
+        }
+        game.startFen = game.toFen();
+        game.positionKeys[0] = game.getPositionKey();
+        return game;
+    }
+
+    // Sem a letra correspondente, a torre daquele lado (ou o rei, se nenhum roque resta) conta como movida
+    private int readCastlingRights(CharSequence fen, int index) {
+        boolean whiteKingSide = false, whiteQueenSide = false, blackKingSide = false, blackQueenSide = false;
+        if (fen.charAt(index) == '-') {
+            index++;
+        } else {
+            for (; index < fen.length() && fen.charAt(index) != ' '; index++) {
+                switch (fen.charAt(index)) {
+                    case 'K': whiteKingSide = true; break;
+                    case 'Q': whiteQueenSide = true; break;
+                    case 'k': blackKingSide = true; break;
+                    case 'q': blackQueenSide = true; break;
+                    default: throw invalidFen(fen, index);
+                }
+            }
+        }
+        markCastlingRights(7, whiteKingSide, whiteQueenSide);
+        markCastlingRights(0, blackKingSide, blackQueenSide);
+        return index;
+    }
+
+    private void markCastlingRights(int row, boolean kingSide, boolean queenSide) {
+        Piece king = board.getPieceAt(new Position(row, 4));
+        if (king instanceof King && !kingSide && !queenSide) king.setHasMoved(true);
+        Piece kingRook = board.getPieceAt(new Position(row, 7));
+        if (kingRook instanceof Rook && !kingSide) kingRook.setHasMoved(true);
+        Piece queenRook = board.getPieceAt(new Position(row, 0));
+        if (queenRook instanceof Rook && !queenSide) queenRook.setHasMoved(true);
+    }
+
+    // A casa de en passant fica atrás do peão que avançou duas casas
+    private int readEnPassant(CharSequence fen, int index) {
+        if (index + 1 >= fen.length()) throw invalidFen(fen, index);
+        int col = fen.charAt(index) - 'a';
+        int row = '8' - fen.charAt(index + 1);
+        if (col < 0 || col > 7 || (row != 2 && row != 5)) throw invalidFen(fen, index);
+        board.setLastPawnDoubleMove(new Position(row == 2 ? 3 : 4, col));
+        return index + 2;
+    }
+
+    private static int skipSpaces(CharSequence fen, int index) {
+        while (index < fen.length() && fen.charAt(index) == ' ') index++;
+        return index;
+    }
+
+    private static IllegalArgumentException invalidFen(CharSequence fen, int index) {
+        return new IllegalArgumentException("FEN inválido na posição " + index + ": " + fen);
+    }
+
+    public String toFen() {
+        StringBuilder out = new StringBuilder(90);
+        appendFen(out);
+        return out.toString();
+    }
+
+    public void appendFen(StringBuilder out) {
+        board.appendFenPlacement(out);
+        out.append(isWhiteTurn ? " w " : " b ");
+        int length = out.length();
+        if (board.hasCastlingRight(true, true)) out.append('K');
+        if (board.hasCastlingRight(true, false)) out.append('Q');
+        if (board.hasCastlingRight(false, true)) out.append('k');
+        if (board.hasCastlingRight(false, false)) out.append('q');
+        if (out.length() == length) out.append('-');
+        out.append(' ');
+        Position lastPawnDoubleMove = board.getLastPawnDoubleMove();
+        if (lastPawnDoubleMove != null) {
+            out.append((char) ('a' + lastPawnDoubleMove.getColumn()))
+                    .append(lastPawnDoubleMove.getRow() == 3 ? '6' : '3');
+        } else {
+            out.append('-');
+        }
+        out.append(' ').append(movesSinceLastCaptureOrPawnMove).append(' ').append(fullMoveNumber);
+    }
+
+    public String getStartFen() {
+        return startFen;
+    }
+
+    // Diário onde cada lance (e cada lance desfeito) é gravado assim que acontece
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    // Quem escolhe a peça quando a promoção não vem no lance
+    public void setPromotionStrategy(PromotionStrategy promotionStrategy) {
+        this.promotionStrategy = promotionStrategy != null ? promotionStrategy : PromotionStrategy.ALWAYS_QUEEN;
+    }
+
+    public int getHalfMoveClock() {
+        return movesSinceLastCaptureOrPawnMove;
+    }
+
+    public int getFullMoveNumber() {
+        return fullMoveNumber;
     }
 
     public List<Move> getMoveHistory() {
@@ -77,6 +253,48 @@ public class Game {
         return isGameOver;
     }
 
+    public Position getLastPawnDoubleMove() {
+        return board.getLastPawnDoubleMove();
+    }
+
+    // Hash Zobrist da posição atual (peças, roques, en passant e lado a jogar)
+    public long getPositionKey() {
+        return Zobrist.getDefault().hash(board, isWhiteTurn, board.getLastPawnDoubleMove());
+    }
+
+    // Quantas vezes a posição atual já apareceu antes. Só olha até o último lance irreversível
+    // (captura ou movimento de peão), e de dois em dois plies, pois o lado a jogar precisa ser o mesmo.
+    public int getRepetitionCount() {
+        int ply = moveHistory.size();
+        long key = positionKeys[ply];
+        int count = 0;
+        for (int back = 4; back <= movesSinceLastCaptureOrPawnMove && back <= ply; back += 2) {
+            if (positionKeys[ply - back] == key) count++;
+        }
+        return count;
+    }
+
+    public boolean isThreefoldRepetition() {
+        return getRepetitionCount() >= 2;
+    }
+
+    public boolean isFiftyMoveRule() {
+        return movesSinceLastCaptureOrPawnMove >= 100;
+    }
+
+    // Empate por repetição tripla ou pela regra dos 50 lances. Não encerra a partida (isGameOver), porque
+    // pelas regras o empate precisa ser reivindicado; quem conduz a partida decide parar.
+    public boolean isDraw() {
+        return isFiftyMoveRule() || isThreefoldRepetition();
+    }
+
+    // Hashes das posições desde o último lance irreversível, terminando na posição atual (usados pela busca)
+    long[] getReversiblePositionKeys() {
+        int ply = moveHistory.size();
+        int first = Math.max(0, ply - movesSinceLastCaptureOrPawnMove);
+        return Arrays.copyOfRange(positionKeys, first, ply + 1);
+    }
+
     public Piece getSelectedPiece() {
         return selectedPiece;
     }
@@ -91,281 +309,412 @@ public class Game {
     }
 
     public boolean movePiece(Position from, Position to) {
+        return movePiece(from, to, NO_PROMOTION_CHOICE);
+    }
+
+    // Promoção já escolhida ('Q', 'R', 'B' ou 'N'), sem consultar a PromotionStrategy; usada pela IA e pelo jogo automático
+    public boolean movePiece(Position from, Position to, char promotion) {
         Piece piece = board.getPieceAt(from);
         if (piece == null || piece.isWhite() != isWhiteTurn || isGameOver)
             return false;
 
-        if (!piece.canMoveTo(to) || moveCausesCheck(piece, to))
+        // Com a cache pronta (a interface gera os lances ao selecionar a peça) a validação é uma consulta;
+        // sem ela, testar só a peça movida sai mais barato que gerar todos os lances (refazer partidas)
+        boolean legal = legalMoves != null ? isLegalMove(from, to) : piece.canMoveTo(to) && !moveCausesCheck(piece, to);
+        if (!legal)
             return false;
 
-        Piece capturedPiece = board.getPieceAt(to);
+        Piece capturedPiece = board.isEnPassantCapture(piece, to)
+                ? board.getPieceAt(new Position(from.getRow(), to.getColumn())) : board.getPieceAt(to);
+        Move move = new Move(from, to, piece, capturedPiece);
+        move.setFirstMove(!piece.getHasMoved());
+        if (piece instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2)
+            move.setCastling(true);
+        else if (piece instanceof Pawn && Math.abs(to.getRow() - from.getRow()) == 2)
+            move.setEnPassant(true);
+        else if (piece instanceof Pawn && (to.getRow() == 0 || to.getRow() == 7)) {
+            move.setPromotion(true);
+            move.setPromotionPiece(choosePromotion(piece, promotion));
+        }
+
+        // Um lance novo descarta os lances desfeitos
+        redoMoves.clear();
+        pushPlyState();
+        makeMove(move);
+        checkGameStatus(from, to);
+        return true;
+    }
+
+    // Aplica um lance já validado: peças, roque, promoção, contadores e turno
+    private void makeMove(Move move) {
+        Piece piece = move.getPiece();
+        Position from = move.getFrom();
+        Position to = move.getTo();
+        Piece capturedPiece = move.getCapturedPiece();
+        if (capturedPiece != null) {
+            // No en passant a peça capturada não está no destino
+            board.removePiece(capturedPiece.getPosition());
+        }
         board.removePiece(from);
         board.placePiece(piece, to);
+        piece.setHasMoved(true);
 
-        Move move = new Move(from, to, piece, capturedPiece);
-
-        if (piece instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2) {
-            move.setCastling(true);
-            
-            // Movimento de roque
-            int rookColumn = to.getColumn() > from.getColumn() ? 7 : 0;
-            int newRookColumn;
-            
-            if (to.getColumn() == 6) { // Roque lado do rei
-                newRookColumn = 5;
-            } else { // Roque longo (lado da rainha)
-                newRookColumn = 3;
-            }
-            
+        if (move.isCastling()) {
+            int rookColumn = to.getColumn() == 6 ? 7 : 0;
+            int newRookColumn = to.getColumn() == 6 ? 5 : 3;
             Position rookPosition = new Position(from.getRow(), rookColumn);
-            Position newRookPosition = new Position(from.getRow(), newRookColumn);
-            
             Piece rook = board.getPieceAt(rookPosition);
             if (rook != null) {
                 board.removePiece(rookPosition);
-                board.placePiece(rook, newRookPosition);
+                board.placePiece(rook, new Position(from.getRow(), newRookColumn));
                 rook.setHasMoved(true);
             }
+        } else if (move.isPromotion()) {
+            board.removePiece(to);
+            board.placePiece(createPromotionPiece(board, move.getPromotionPiece(), piece.isWhite()), to);
         }
-        else if (piece instanceof Pawn && Math.abs(to.getRow() - from.getRow()) == 2)
-            move.setEnPassant(true);
-        else if (piece instanceof Pawn && (to.getRow() == 0 || to.getRow() == 7))
-            move.setPromotion(true);
 
-        moveHistory.add(move);
-        checkSpecialConditions(piece, to);
-        checkGameStatus(from, to);
+        if (piece instanceof Pawn || capturedPiece != null) {
+            movesSinceLastCaptureOrPawnMove = 0;
+        } else {
+            movesSinceLastCaptureOrPawnMove++;
+        }
+        if (!isWhiteTurn) {
+            fullMoveNumber++;
+        }
+        // Só o peão que acabou de avançar duas casas pode ser capturado en passant no próximo lance
+        board.setLastPawnDoubleMove(move.isEnPassant() ? to : null);
 
+        moveHistory.add(move);
         isWhiteTurn = !isWhiteTurn;
         selectedPiece = null;
-
-        // Captura en passant
-        if (piece instanceof Pawn) {
-            if (Math.abs(to.getRow() - from.getRow()) == 2)
-                lastPawnDoubleMove = to;
-            else if (Math.abs(to.getColumn() - from.getColumn()) == 1 && capturedPiece == null) {
-                Position capturedPawnPos = new Position(from.getRow(), to.getColumn());
-                board.removePiece(capturedPawnPos);
-            } else
-                lastPawnDoubleMove = null;
-        } else
-            lastPawnDoubleMove = null;
-
-        return true;
+        legalMoves = null;
+        positionKeys[moveHistory.size()] = getPositionKey();
+        if (journal != null) {
+            journal.recordMove(moveHistory.size() - 1, move);
+        }
     }
 
     boolean moveCausesCheck(Piece piece, Position destination) {
-        Board tempBoard = board.clone();
-        Position originalPos = piece.getPosition();
-
-        Piece tempPiece = tempBoard.getPieceAt(originalPos);
-        tempBoard.removePiece(originalPos);
-        tempBoard.placePiece(tempPiece, destination);
-
-        // Encontrar posição do rei da mesma cor
-        Position kingPos = null;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = tempBoard.getPieceAt(new Position(r, c));
-                if (p instanceof King && p.isWhite() == piece.isWhite()) {
-                    kingPos = p.getPosition();
-                    break;
-                }
-            }
-            if (kingPos != null)
-                break;
-        }
-
-        return tempBoard.isUnderAttack(kingPos, !piece.isWhite());
-    }
-
-    private void checkSpecialConditions(Piece piece, Position destination) {
-        // Verificar promoção de peão
-        if (piece instanceof Pawn) {
-            if ((piece.isWhite() && destination.getRow() == 0) ||
-                    (!piece.isWhite() && destination.getRow() == 7)) {
-
-                // Perguntar ao jogador para qual peça deseja promover
-                String[] options = { "Rainha", "Torre", "Bispo", "Cavalo" };
-                int choice = JOptionPane.showOptionDialog(null,
-                        "Escolha uma peça para promoção:",
-                        "Promoção de Peão",
-                        JOptionPane.DEFAULT_OPTION,
-                        JOptionPane.QUESTION_MESSAGE,
-                        null, options, options[0]);
-
-                // Criar a nova peça
-                Piece newPiece;
-                switch (choice) {
-                    case 0:
-                        newPiece = new Queen(board, piece.isWhite());
-                        break;
-                    case 1:
-                        newPiece = new Rook(board, piece.isWhite());
-                        break;
-                    case 2:
-                        newPiece = new Bishop(board, piece.isWhite());
-                        break;
-                    case 3:
-                        newPiece = new Knight(board, piece.isWhite());
-                        break;
-                    default:
-                        newPiece = new Queen(board, piece.isWhite());
-                }
+        return !board.isLegalMove(piece, destination);
+    }
 
-                // Substituir o peão pela nova peça
-                board.removePiece(destination);
-                board.placePiece(newPiece, destination);
-            }
+    // Peça escolhida na promoção; sem escolha prévia, a estratégia de promoção decide
+    private char choosePromotion(Piece pawn, char promotion) {
+        if (PROMOTION_PIECES.indexOf(promotion) < 0) {
+            promotion = promotionStrategy.choosePromotion(pawn.isWhite());
         }
+        return PROMOTION_PIECES.indexOf(promotion) < 0 ? 'Q' : promotion;
     }
 
-    private void checkGameStatus(Position originalPosition, Position destination) {
-        boolean whiteKingInCheck = isInCheck(true);
-        boolean blackKingInCheck = isInCheck(false);
+    // Peça da promoção; sem escolha válida, dama. A busca da IA também usa, nos tabuleiros de teste
+    static Piece createPromotionPiece(Board board, char promotion, boolean white) {
+        switch (promotion) {
+            case 'R': return new Rook(board, white);
+            case 'B': return new Bishop(board, white);
+            case 'N': return new Knight(board, white);
+            default: return new Queen(board, white);
+        }
+    }
 
-        if (whiteKingInCheck && isCheckmate(true)) {
-            isGameOver = true;
-            // Pretas vencem
-        } else if (blackKingInCheck && isCheckmate(false)) {
+    // Só quem vai jogar pode estar em xeque depois de um lance legal; os lances legais são gerados
+    // apenas nesse caso, e ficam na cache para a jogada seguinte
+    private void checkGameStatus(Position originalPosition, Position destination) {
+        if (isCheckmate()) {
             isGameOver = true;
-            // Brancas vencem
         }
     }
 
+    public boolean isCheckmate() {
+        return isInCheck(isWhiteTurn) && getLegalMoves().isEmpty();
+    }
+
+    // Afogamento: sem lances legais e fora de xeque (empate)
+    public boolean isStalemate() {
+        return getLegalMoves().isEmpty() && !isInCheck(isWhiteTurn);
+    }
+
     public boolean isInCheck(boolean whiteKing) {
-        // Encontrar a posição do rei
-        Position kingPosition = null;
+        // Verificar se alguma peça adversária pode capturar o rei
+        return board.isUnderAttack(findKing(whiteKing), !whiteKing);
+    }
 
+    private Position findKing(boolean white) {
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
                 Position pos = new Position(row, col);
                 Piece piece = board.getPieceAt(pos);
-
-                if (piece instanceof King &&
-                        piece.isWhite() == whiteKing) {
-                    kingPosition = pos;
-                    break;
+                if (piece instanceof King && piece.isWhite() == white) {
+                    return pos;
                 }
             }
-            if (kingPosition != null)
-                break;
         }
-
-        // Verificar se alguma peça adversária pode capturar o rei
-        return board.isUnderAttack(kingPosition, !whiteKing);
+        return null;
     }
 
+    // Desfaz o último lance; ele fica guardado para redoMove até que outro lance seja jogado
     public boolean undoLastMove() {
         if (moveHistory.isEmpty()) {
             return false;
         }
 
         Move lastMove = moveHistory.remove(moveHistory.size() - 1);
-
-       
-        board.removePiece(lastMove.getTo());
-        board.placePiece(lastMove.getPiece(), lastMove.getFrom());
-
-        
+        int ply = moveHistory.size();
+        // O estado depois do lance fica guardado para refazê-lo
+        plyStates[ply + 1] = packPlyState();
+
+        Piece piece = lastMove.getPiece();
+        Position from = lastMove.getFrom();
+        Position to = lastMove.getTo();
+        board.removePiece(to);
+        board.placePiece(piece, from);
+        if (lastMove.isFirstMove()) {
+            piece.setHasMoved(false);
+        }
+        // A peça capturada volta à própria casa (no en passant, ela não estava no destino)
         if (lastMove.getCapturedPiece() != null) {
-            board.placePiece(lastMove.getCapturedPiece(),
-                    lastMove.getTo());
+            board.placePiece(lastMove.getCapturedPiece(), lastMove.getCapturedPiece().getPosition());
         }
-
         if (lastMove.isCastling()) {
-            // Desfazer o movimento do rei
-            Piece king = lastMove.getPiece();
-            Position from = lastMove.getFrom();
-            Position to = lastMove.getTo();
-            board.removePiece(to);
-            board.placePiece(king, from);
-            king.setHasMoved(false);
-
-            
-            int rookOriginalCol = (to.getColumn() == 6) ? 7 : 0;
-            int rookNewCol = (to.getColumn() == 6) ? 5 : 3;
-            
-            
-            if (to.getColumn() == 2) {
-                rookOriginalCol = 0; 
-                rookNewCol = 3; 
-            }
-
-            Position rookNewPos = new Position(from.getRow(), rookNewCol);
-            Position rookOriginalPos = new Position(from.getRow(), rookOriginalCol);
-
+            Position rookNewPos = new Position(from.getRow(), to.getColumn() == 6 ? 5 : 3);
             Piece rook = board.getPieceAt(rookNewPos);
             if (rook != null) {
                 board.removePiece(rookNewPos);
-                board.placePiece(rook, rookOriginalPos);
+                board.placePiece(rook, new Position(from.getRow(), to.getColumn() == 6 ? 7 : 0));
                 rook.setHasMoved(false);
             }
         }
 
-        // Restaurar o turno
+        restorePlyState(plyStates[ply]);
         isWhiteTurn = !isWhiteTurn;
+        legalMoves = null;
+        if (!isWhiteTurn) {
+            fullMoveNumber--;
+        }
+        selectedPiece = null;
+        redoMoves.add(lastMove);
+        if (journal != null) {
+            journal.recordUndo(ply);
+        }
 
         return true;
     }
 
-    private boolean isCheckmate(boolean whiteKing) {
-        if (!isInCheck(whiteKing)) {
+    // Refaz o último lance desfeito, sem validar de novo nem procurar mate
+    public boolean redoMove() {
+        if (redoMoves.isEmpty()) {
             return false;
         }
+        Move move = redoMoves.remove(redoMoves.size() - 1);
+        makeMove(move);
+        restorePlyState(plyStates[moveHistory.size()]);
+        return true;
+    }
 
-        // Verificar se há algum movimento legal para sair do xeque
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position pos = new Position(row, col);
-                Piece piece = board.getPieceAt(pos);
+    public boolean canRedo() {
+        return !redoMoves.isEmpty();
+    }
 
-                if (piece != null && piece.isWhite() == whiteKing) {
-                    for (Object obj : piece.getPossibleMoves()) {
-                        Position movePos = (Position) obj;
-                        // Testar se o movimento tira o rei do xeque
-                        if (!moveCausesCheck(piece, movePos)) {
-                            return false;
+    // Lances desfeitos que ainda podem ser refeitos, na ordem em que seriam jogados
+    public List<Move> getRedoMoves() {
+        List<Move> moves = new ArrayList<>(redoMoves);
+        Collections.reverse(moves);
+        return moves;
+    }
+
+    // Vai para o ply indicado desfazendo ou refazendo só os lances entre ele e o atual
+    public boolean goToPly(int ply) {
+        if (ply < 0 || ply > moveHistory.size() + redoMoves.size()) {
+            return false;
+        }
+        while (moveHistory.size() > ply) {
+            undoLastMove();
+        }
+        while (moveHistory.size() < ply) {
+            redoMove();
+        }
+        return true;
+    }
+
+    // Guarda o estado de antes do próximo lance
+    private void pushPlyState() {
+        int ply = moveHistory.size();
+        if (ply + 1 >= plyStates.length) {
+            plyStates = Arrays.copyOf(plyStates, plyStates.length * 2);
+            positionKeys = Arrays.copyOf(positionKeys, plyStates.length);
+        }
+        plyStates[ply] = packPlyState();
+    }
+
+    private int packPlyState() {
+        Position enPassant = board.getLastPawnDoubleMove();
+        int square = enPassant == null ? 0 : enPassant.getRow() * 8 + enPassant.getColumn() + 1;
+        return square | Math.min(movesSinceLastCaptureOrPawnMove, 0xFFFF) << 7 | (isGameOver ? 1 << 23 : 0);
+    }
+
+    private void restorePlyState(int state) {
+        int square = (state & 0x7F) - 1;
+        board.setLastPawnDoubleMove(square < 0 ? null : new Position(square / 8, square % 8));
+        movesSinceLastCaptureOrPawnMove = (state >>> 7) & 0xFFFF;
+        isGameOver = (state & 1 << 23) != 0;
+    }
+
+    // Todos os lances legais do lado a jogar (lista compartilhada, só para leitura)
+    public List<Move> getLegalMoves() {
+        if (legalMoves == null) {
+            List<Move> moves = new ArrayList<>();
+            Arrays.fill(legalTargets, 0);
+            Position king = findKing(isWhiteTurn);
+            boolean inCheck = king == null || board.isUnderAttack(king, !isWhiteTurn);
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    Position pos = new Position(row, col);
+                    Piece piece = board.getPieceAt(pos);
+                    if (piece != null && piece.isWhite() == isWhiteTurn) {
+                        // Fora de xeque, uma peça que não está na mesma linha, coluna ou diagonal do rei não
+                        // pode deixá-lo em xeque ao sair da casa; só os outros lances precisam ser testados
+                        boolean aligned = inCheck || piece instanceof King || row == king.getRow()
+                                || col == king.getColumn()
+                                || Math.abs(row - king.getRow()) == Math.abs(col - king.getColumn());
+                        for (Position dest : piece.getPossibleMoves()) {
+                            boolean mustTest = aligned || board.isEnPassantCapture(piece, dest);
+                            if (!mustTest || !moveCausesCheck(piece, dest)) {
+                                moves.add(new Move(pos, dest, piece, board.getPieceAt(dest)));
+                                legalTargets[row * 8 + col] |= 1L << (dest.getRow() * 8 + dest.getColumn());
+                            }
                         }
                     }
                 }
             }
+            legalMoves = Collections.unmodifiableList(moves);
         }
-        return true;
+        return legalMoves;
     }
 
-    public void saveGame(String filePath) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(filePath))) {
+    // Consulta direta na cache de lances legais
+    public boolean isLegalMove(Position from, Position to) {
+        if (!from.isValid() || !to.isValid()) {
+            return false;
+        }
+        getLegalMoves();
+        return (legalTargets[from.getRow() * 8 + from.getColumn()] & 1L << (to.getRow() * 8 + to.getColumn())) != 0;
+    }
 
-            // Salvar o estado do jogo
-            oos.writeObject(board);
-            oos.writeBoolean(isWhiteTurn);
-            oos.writeObject(moveHistory);
-            
+    // Casas para onde a peça em from pode ir legalmente (vazio se não for a vez dela)
+    public List<Position> getLegalDestinations(Position from) {
+        List<Position> destinations = new ArrayList<>();
+        if (!from.isValid()) {
+            return destinations;
+        }
+        getLegalMoves();
+        long targets = legalTargets[from.getRow() * 8 + from.getColumn()];
+        while (targets != 0) {
+            int square = Long.numberOfTrailingZeros(targets);
+            destinations.add(new Position(square / 8, square % 8));
+            targets &= targets - 1;
+        }
+        return destinations;
+    }
 
-            System.out.println("Jogo salvo com sucesso em: " + filePath);
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar o jogo: " + e.getMessage());
+    // Formato binário da partida (big-endian):
+    //   cabeçalho: "XGM1", versão (2 bytes), flags (2 bytes; bit 0 = posição inicial própria)
+    //   com o bit 0: FEN da posição inicial (2 bytes de tamanho + UTF-8)
+    //   número de lances (4 bytes) e 2 bytes por lance (encodeMove)
+    // A carga refaz os lances a partir da posição inicial, restaurando roques, en passant e contadores.
+    public void saveGame(Path path) throws IOException {
+        writeSaveData(path, toSaveData());
+    }
+
+    // Conteúdo do arquivo da partida; é rápido e pode ser gerado na thread da interface,
+    // deixando só a escrita (writeSaveData) para outra thread
+    public ByteBuffer toSaveData() {
+        byte[] fen = startFen == null ? new byte[0] : startFen.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(SAVE_HEADER_SIZE + 2 + fen.length + 4 + 2 * moveHistory.size());
+        buffer.putInt(SAVE_MAGIC);
+        buffer.putShort(SAVE_VERSION);
+        buffer.putShort(startFen == null ? 0 : SAVE_CUSTOM_START);
+        if (startFen != null) {
+            buffer.putShort((short) fen.length);
+            buffer.put(fen);
+        }
+        buffer.putInt(moveHistory.size());
+        for (Move move : moveHistory) {
+            buffer.putShort((short) encodeMove(move));
         }
+        buffer.flip();
+        return buffer;
     }
 
-    public static Game loadGame(String filePath) {
-        try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(filePath))) {
+    // Lance em 16 bits: origem (6), destino (6) e peça da promoção (4: 0 = nenhuma, 1..4 = Q R B N)
+    static int encodeMove(Move move) {
+        int from = move.getFrom().getRow() * 8 + move.getFrom().getColumn();
+        int to = move.getTo().getRow() * 8 + move.getTo().getColumn();
+        int promotion = move.isPromotion() ? PROMOTION_PIECES.indexOf(move.getPromotionPiece()) + 1 : 0;
+        return from << 10 | to << 4 | promotion;
+    }
 
-            Game game = new Game(); // Construtor especial sem setup inicial
+    boolean playEncodedMove(int encoded) {
+        int from = encoded >>> 10;
+        int to = (encoded >>> 4) & 63;
+        int promotion = encoded & 15;
+        if (promotion > PROMOTION_PIECES.length()) {
+            return false;
+        }
+        char piece = promotion == 0 ? 'Q' : PROMOTION_PIECES.charAt(promotion - 1);
+        return movePiece(new Position(from / 8, from % 8), new Position(to / 8, to % 8), piece);
+    }
 
-            // Carregar o estado do jogo
-            game.board = (Board) ois.readObject();
-            game.isWhiteTurn = ois.readBoolean();
-            game.moveHistory = (List<Move>) ois.readObject();
+    public static void writeSaveData(Path path, ByteBuffer data) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
 
-            System.out.println("Jogo carregado com sucesso de: " + filePath);
+    public static Game loadGame(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > MAX_SAVE_SIZE) {
+                throw new IOException("Arquivo grande demais para uma partida: " + path);
+            }
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) break;
+            }
+            buffer.flip();
+        }
+        return fromSaveData(buffer, path.toString());
+    }
+
+    public static Game fromSaveData(ByteBuffer buffer, String source) throws IOException {
+        try {
+            if (buffer.getInt() != SAVE_MAGIC) {
+                throw new IOException("Não é um arquivo de partida: " + source);
+            }
+            short version = buffer.getShort();
+            if (version != SAVE_VERSION) {
+                throw new IOException("Versão de arquivo não suportada: " + version);
+            }
+            Game game;
+            if ((buffer.getShort() & SAVE_CUSTOM_START) != 0) {
+                byte[] fen = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(fen);
+                game = fromFen(new String(fen, StandardCharsets.UTF_8));
+            } else {
+                game = new Game();
+            }
+
+            int moves = buffer.getInt();
+            for (int i = 0; i < moves; i++) {
+                if (!game.playEncodedMove(buffer.getShort() & 0xFFFF)) {
+                    throw new IOException("Lance " + (i + 1) + " inválido em " + source);
+                }
+            }
             return game;
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Erro ao carregar o jogo: " + e.getMessage());
-            return null;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Arquivo de partida corrompido: " + source, e);
         }
     }
 }
\ No newline at end of file
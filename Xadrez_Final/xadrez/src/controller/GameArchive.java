@@ -0,0 +1,247 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import model.board.Move;
+import model.pieces.Pawn;
+
+// Arquivo compacto de partidas, mapeado em memória (big-endian):
+//   cabeçalho (HEADER_SIZE): "XAR1", versão (2), reservado (2), número de partidas (4), reservado (4),
+//                            posição do índice (8)
+//   partidas, uma após a outra:
+//     número de lances (2), resultado (1: 0 = pretas, 1 = empate, 2 = brancas, 3 = desconhecido),
+//     número de tags (1) e cada tag como nome (1 byte de tamanho + UTF-8) e valor (2 + UTF-8);
+//     a tag FEN, se houver, é a posição inicial. Depois, 1 byte por lance: o índice do lance na lista
+//     de lances legais da posição em ordem canônica (legalMoves).
+//   índice: a posição de cada partida no arquivo (8 bytes cada), para ler a partida N sem decodificar as outras.
+// A leitura só usa acessos absolutos ao buffer mapeado, então pode ser feita por várias threads ao mesmo tempo.
+public class GameArchive implements Closeable {
+    public static final String FILE_EXTENSION = ".xar";
+    static final int MAGIC = 0x58415231; // "XAR1"
+    static final short VERSION = 1;
+    private static final String PROMOTION_ORDER = "QRBN";
+    // Ordem canônica: casa de origem, casa de destino (linha * 8 + coluna) e peça da promoção
+    private static final Comparator<Move> CANONICAL_ORDER = Comparator
+            .<Move>comparingInt(move -> move.getFrom().getRow() * 8 + move.getFrom().getColumn())
+            .thenComparingInt(move -> move.getTo().getRow() * 8 + move.getTo().getColumn())
+            .thenComparingInt(move -> PROMOTION_ORDER.indexOf(move.getPromotionPiece()));
+    static final int HEADER_SIZE = 24;
+    static final String[] RESULTS = { "0-1", "1/2-1/2", "1-0", PgnGame.UNKNOWN_RESULT };
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final int gameCount;
+    private final int indexOffset;
+
+    private GameArchive(Path path, FileChannel channel, MappedByteBuffer data) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.data = data;
+        if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Não é um arquivo de partidas: " + path);
+        }
+        if (data.getShort(4) != VERSION) {
+            throw new IOException("Versão de arquivo de partidas não suportada: " + data.getShort(4));
+        }
+        this.gameCount = data.getInt(8);
+        long index = data.getLong(16);
+        if (gameCount < 0 || index < HEADER_SIZE || index + 8L * gameCount > data.limit()) {
+            throw new IOException("Índice do arquivo de partidas corrompido: " + path);
+        }
+        this.indexOffset = (int) index;
+    }
+
+    public static GameArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo de partidas grande demais para mapear: " + path);
+            }
+            return new GameArchive(path, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return gameCount;
+    }
+
+    private int offsetOf(int game) {
+        if (game < 0 || game >= gameCount) {
+            throw new IndexOutOfBoundsException("Partida " + game + " de " + gameCount);
+        }
+        return (int) data.getLong(indexOffset + 8 * game);
+    }
+
+    public int getPlyCount(int game) {
+        return data.getShort(offsetOf(game)) & 0xFFFF;
+    }
+
+    public String getResult(int game) {
+        return RESULTS[Math.min(data.get(offsetOf(game) + 2), RESULTS.length - 1)];
+    }
+
+    public Map<String, String> getTags(int game) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        readTags(offsetOf(game), tags);
+        return tags;
+    }
+
+    // Lê as tags e devolve a posição do primeiro lance
+    private int readTags(int offset, Map<String, String> tags) {
+        int count = data.get(offset + 3) & 0xFF;
+        int position = offset + 4;
+        for (int i = 0; i < count; i++) {
+            int nameLength = data.get(position) & 0xFF;
+            String name = readString(position + 1, nameLength);
+            position += 1 + nameLength;
+            int valueLength = data.getShort(position) & 0xFFFF;
+            String value = readString(position + 2, valueLength);
+            position += 2 + valueLength;
+            if (tags != null) tags.put(name, value);
+        }
+        return position;
+    }
+
+    private String readString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = data.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Refaz a partida N. Um índice de lance fora da lista indica arquivo corrompido.
+    public Game getGame(int game) throws IOException {
+        int offset = offsetOf(game);
+        int plies = data.getShort(offset) & 0xFFFF;
+        Map<String, String> tags = new LinkedHashMap<>();
+        int position = readTags(offset, tags);
+        String fen = tags.get("FEN");
+        Game replay;
+        try {
+            replay = fen != null ? Game.fromFen(fen) : new Game();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("FEN inválido na partida " + game + " de " + path, e);
+        }
+        for (int ply = 0; ply < plies; ply++) {
+            List<Move> moves = legalMoves(replay);
+            int index = data.get(position + ply) & 0xFF;
+            if (index >= moves.size()) {
+                throw new IOException("Lance " + (ply + 1) + " inválido na partida " + game + " de " + path);
+            }
+            Move move = moves.get(index);
+            replay.movePiece(move.getFrom(), move.getTo(), move.isPromotion() ? move.getPromotionPiece() : 'Q');
+        }
+        return replay;
+    }
+
+    // Lances legais com cada promoção desdobrada em Q, R, B e N, em ordem canônica: o índice gravado não
+    // depende da ordem em que Game.getLegalMoves gera os lances
+    static List<Move> legalMoves(Game game) {
+        List<Move> legal = game.getLegalMoves();
+        List<Move> moves = new ArrayList<>(legal.size() + 8);
+        for (Move move : legal) {
+            if (move.getPiece() instanceof Pawn && (move.getTo().getRow() == 0 || move.getTo().getRow() == 7)) {
+                for (char piece : PROMOTION_ORDER.toCharArray()) {
+                    Move promotion = move.clone();
+                    promotion.setPromotion(true);
+                    promotion.setPromotionPiece(piece);
+                    moves.add(promotion);
+                }
+            } else {
+                moves.add(move);
+            }
+        }
+        moves.sort(CANONICAL_ORDER);
+        return moves;
+    }
+
+    // Posição do lance na lista de legalMoves, ou -1
+    static int indexOf(List<Move> moves, Move move) {
+        for (int i = 0; i < moves.size(); i++) {
+            Move candidate = moves.get(i);
+            if (candidate.getFrom().equals(move.getFrom()) && candidate.getTo().equals(move.getTo())
+                    && (!candidate.isPromotion() || candidate.getPromotionPiece() == move.getPromotionPiece())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Partida codificada no formato descrito acima, a partir de uma partida já jogada
+    static ByteBuffer encode(Game game, Map<String, String> tags, String result) {
+        // Tags desconhecidas ("?") e as que o próprio formato já guarda não ocupam espaço
+        Map<String, String> allTags = new LinkedHashMap<>(tags);
+        allTags.values().removeIf("?"::equals);
+        allTags.remove("Result");
+        allTags.remove("SetUp");
+        allTags.remove("FEN");
+        if (game.getStartFen() != null) {
+            allTags.put("FEN", game.getStartFen());
+        }
+        if (allTags.size() > 255) {
+            throw new IllegalArgumentException("Tags demais na partida: " + allTags.size());
+        }
+        List<Move> history = game.getMoveHistory();
+        if (history.size() > 0xFFFF) {
+            throw new IllegalArgumentException("Partida longa demais: " + history.size() + " lances");
+        }
+
+        List<byte[]> encodedTags = new ArrayList<>();
+        int size = 4 + history.size();
+        for (Map.Entry<String, String> tag : allTags.entrySet()) {
+            byte[] name = tag.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] value = tag.getValue().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFF || value.length > 0xFFFF) {
+                throw new IllegalArgumentException("Tag grande demais: " + tag.getKey());
+            }
+            encodedTags.add(name);
+            encodedTags.add(value);
+            size += 3 + name.length + value.length;
+        }
+
+        int resultCode = List.of(RESULTS).indexOf(result);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putShort((short) history.size());
+        buffer.put((byte) (resultCode < 0 ? RESULTS.length - 1 : resultCode));
+        buffer.put((byte) allTags.size());
+        for (int i = 0; i < encodedTags.size(); i += 2) {
+            buffer.put((byte) encodedTags.get(i).length).put(encodedTags.get(i));
+            buffer.putShort((short) encodedTags.get(i + 1).length).put(encodedTags.get(i + 1));
+        }
+
+        Game replay = game.getStartFen() != null ? Game.fromFen(game.getStartFen()) : new Game();
+        for (Move move : history) {
+            List<Move> moves = legalMoves(replay);
+            int index = indexOf(moves, move);
+            if (index < 0 || index > 0xFF) {
+                throw new IllegalArgumentException("Lance fora da lista de lances legais: " + move);
+            }
+            buffer.put((byte) index);
+            Move chosen = moves.get(index);
+            replay.movePiece(chosen.getFrom(), chosen.getTo(), chosen.isPromotion() ? chosen.getPromotionPiece() : 'Q');
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,159 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Grava um arquivo de partidas (formato descrito em GameArchive) em fluxo; o índice vai no fim, no close.
+// Também converte PGN e partidas salvas, sem interface gráfica:
+//   java controller.GameArchiveWriter <saída.xar> <entrada.pgn | partida salva>...
+public class GameArchiveWriter implements Closeable {
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final int BATCH_SIZE = 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private long[] offsets = new long[1024];
+    private int gameCount;
+    private long position = GameArchive.HEADER_SIZE;
+
+    public GameArchiveWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(GameArchive.HEADER_SIZE);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: java controller.GameArchiveWriter <saída.xar> <entrada.pgn | partida salva>...");
+            System.exit(1);
+        }
+
+        Path output = Paths.get(args[0]);
+        long inputSize = 0;
+        int skipped = 0;
+        long start = System.currentTimeMillis();
+        try (GameArchiveWriter writer = new GameArchiveWriter(output)) {
+            for (String name : Arrays.asList(args).subList(1, args.length)) {
+                Path input = Paths.get(name);
+                inputSize += Files.size(input);
+                if (name.toLowerCase().endsWith(".pgn")) {
+                    skipped += writer.writePgn(input);
+                } else {
+                    Game game = Game.loadGame(input);
+                    writer.write(game, Map.of(), PgnGame.UNKNOWN_RESULT);
+                }
+            }
+            System.out.printf("%d partidas gravadas, %d ignoradas%n", writer.gameCount, skipped);
+        }
+        System.out.printf("%d bytes -> %d bytes em %d ms%n", inputSize, Files.size(output),
+                System.currentTimeMillis() - start);
+    }
+
+    // Converte um PGN em lotes: cada lote é codificado em paralelo e gravado na ordem do arquivo,
+    // então a memória usada não depende do tamanho do PGN. Devolve quantas partidas inválidas foram ignoradas.
+    public int writePgn(Path input) throws IOException {
+        int skipped = 0;
+        try (PgnReader reader = PgnReader.open(input)) {
+            List<PgnGame> batch = new ArrayList<>(BATCH_SIZE);
+            while (reader.hasNext()) {
+                batch.add(reader.next());
+                if (batch.size() == BATCH_SIZE || !reader.hasNext()) {
+                    List<ByteBuffer> encoded = batch.parallelStream()
+                            .map(GameArchiveWriter::encodeOrNull)
+                            .collect(Collectors.toList());
+                    for (ByteBuffer game : encoded) {
+                        if (game == null) {
+                            skipped++;
+                        } else {
+                            append(game);
+                        }
+                    }
+                    batch.clear();
+                }
+            }
+        }
+        return skipped;
+    }
+
+    private static ByteBuffer encodeOrNull(PgnGame game) {
+        try {
+            return GameArchive.encode(game.replay(), game.getTags(), game.getResult());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Partida ignorada: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void write(Game game, Map<String, String> tags, String result) throws IOException {
+        append(GameArchive.encode(game, tags, result));
+    }
+
+    private void append(ByteBuffer game) throws IOException {
+        if (gameCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, gameCount * 2);
+        }
+        offsets[gameCount++] = position;
+        position += game.remaining();
+        put(game);
+    }
+
+    private void put(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int length = Math.min(buffer.remaining(), data.remaining());
+            ByteBuffer slice = data.duplicate();
+            slice.limit(slice.position() + length);
+            buffer.put(slice);
+            data.position(data.position() + length);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = position;
+            ByteBuffer entry = ByteBuffer.allocate(8);
+            for (int i = 0; i < gameCount; i++) {
+                entry.clear();
+                entry.putLong(offsets[i]).flip();
+                put(entry);
+            }
+            drain();
+
+            ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_SIZE);
+            header.putInt(GameArchive.MAGIC);
+            header.putShort(GameArchive.VERSION);
+            header.putShort((short) 0);
+            header.putInt(gameCount);
+            header.putInt(0);
+            header.putLong(indexOffset);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import model.board.Move;
+
+// Diário da partida em andamento, só de acréscimo, para recuperar o jogo depois de uma queda.
+// Cabeçalho: "XJN1", versão (2 bytes), tamanho do FEN inicial (2 bytes, 0 = posição padrão) e o FEN.
+// Depois, registros de 8 bytes: ply (2), lance no formato de Game.encodeMove ou UNDO (2) e CRC32 dos
+// 4 primeiros bytes. Um registro de lance no ply n descarta o que vinha depois dele; UNDO volta ao ply n.
+// As escritas vão direto ao arquivo e a sincronização com o disco (force) é feita em lote pela thread
+// de gravação, uma vez a cada intervalo, cobrindo todos os lances acumulados desde a anterior.
+public class GameJournal implements Closeable {
+    private static final int MAGIC = 0x584A4E31; // "XJN1"
+    private static final short VERSION = 1;
+    private static final int RECORD_SIZE = 8;
+    private static final int UNDO = 0; // origem e destino iguais: nunca é um lance
+    private static final long FORCE_INTERVAL_MS = 200;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService flusher;
+    private boolean dirty;
+    private boolean failed;
+
+    private GameJournal(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::sync, FORCE_INTERVAL_MS, FORCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static GameJournal open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return new GameJournal(path, channel);
+    }
+
+    // Refaz a partida gravada no diário. Registros incompletos ou corrompidos no fim (queda no meio de
+    // uma escrita) são descartados, e o diário continua a partir do último registro válido.
+    public synchronized Game recover() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            Game game = new Game();
+            reset(game);
+            return game;
+        }
+
+        ByteBuffer data = ByteBuffer.allocate((int) Math.min(size, Integer.MAX_VALUE));
+        while (data.hasRemaining()) {
+            if (channel.read(data, data.position()) < 0) break;
+        }
+        data.flip();
+
+        Game game;
+        try {
+            if (data.getInt() != MAGIC || data.getShort() != VERSION) {
+                throw new IOException("Diário inválido: " + path);
+            }
+            byte[] fen = new byte[data.getShort() & 0xFFFF];
+            data.get(fen);
+            game = fen.length == 0 ? new Game() : Game.fromFen(new String(fen, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IOException("Cabeçalho do diário corrompido: " + path, e);
+        }
+
+        while (data.remaining() >= RECORD_SIZE) {
+            int ply = data.getShort(data.position()) & 0xFFFF;
+            int move = data.getShort(data.position() + 2) & 0xFFFF;
+            if (data.getInt(data.position() + 4) != checksum(ply, move) || !replay(game, ply, move)) {
+                break;
+            }
+            data.position(data.position() + RECORD_SIZE);
+        }
+        channel.truncate(data.position());
+        channel.position(data.position());
+        return game;
+    }
+
+    private static boolean replay(Game game, int ply, int move) {
+        if (ply > game.getMoveHistory().size()) {
+            return false;
+        }
+        while (game.getMoveHistory().size() > ply) {
+            game.undoLastMove();
+        }
+        return move == UNDO || game.playEncodedMove(move);
+    }
+
+    // Recomeça o diário com a partida indicada (nova ou carregada de um arquivo)
+    public synchronized void reset(Game game) {
+        try {
+            String startFen = game.getStartFen();
+            byte[] fen = startFen == null ? new byte[0] : startFen.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer header = ByteBuffer.allocate(8 + fen.length);
+            header.putInt(MAGIC);
+            header.putShort(VERSION);
+            header.putShort((short) fen.length);
+            header.put(fen);
+            header.flip();
+
+            channel.truncate(0);
+            channel.position(0);
+            write(header);
+            for (int ply = 0; ply < game.getMoveHistory().size(); ply++) {
+                append(ply, Game.encodeMove(game.getMoveHistory().get(ply)));
+            }
+            channel.force(false);
+            dirty = false;
+            failed = false;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    void recordMove(int ply, Move move) {
+        record(ply, Game.encodeMove(move));
+    }
+
+    void recordUndo(int ply) {
+        record(ply, UNDO);
+    }
+
+    private synchronized void record(int ply, int move) {
+        if (failed) return;
+        try {
+            append(ply, move);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void append(int ply, int move) throws IOException {
+        record.clear();
+        record.putShort((short) ply);
+        record.putShort((short) move);
+        record.putInt(checksum(ply, move));
+        record.flip();
+        write(record);
+        dirty = true;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private int checksum(int ply, int move) {
+        crc.reset();
+        crc.update(ply >>> 8);
+        crc.update(ply);
+        crc.update(move >>> 8);
+        crc.update(move);
+        return (int) crc.getValue();
+    }
+
+    // Grava no disco tudo o que foi escrito desde a última sincronização. O force fica fora do
+    // bloqueio, para que os lances seguintes não esperem pelo disco.
+    public void sync() {
+        synchronized (this) {
+            if (!dirty || failed) return;
+            dirty = false;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Uma falha só desliga o diário; a partida continua normalmente
+    private synchronized void fail(IOException e) {
+        failed = true;
+        System.err.println("Erro no diário da partida " + path + ": " + e.getMessage());
+    }
+
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sync();
+        channel.close();
+    }
+}
@@ -0,0 +1,282 @@
+package controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import model.board.Move;
+
+// Servidor HTTP embutido com várias partidas humano contra IA, sem interface gráfica:
+//   java controller.GameServer [porta] [threads de busca]
+// Protocolo (respostas em JSON; lances em notação de coordenadas, como no UCI):
+//   POST   /games?color=white|black&level=EASY|MEDIUM|HARD|EXPERT  cria a partida (color = cor do jogador)
+//   GET    /games/{id}                                             estado da partida
+//   POST   /games/{id}/move   corpo "e2e4" (ou ?move=e2e4)         lance do jogador e resposta da IA
+//   DELETE /games/{id}                                             encerra a partida
+// Cada requisição roda numa thread virtual (em Java 21 ou mais novo; antes, num pool de threads
+// comuns) e as buscas da IA vão para um pool fixo de threads de plataforma, para que a busca, que
+// só usa CPU, não impeça o atendimento das outras conexões.
+public class GameServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final long SESSION_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final int MAX_BODY_SIZE = 1024;
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ExecutorService searchPool;
+    private final ScheduledExecutorService sweeper;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    // Uma partida do servidor. O ReentrantLock (e não synchronized) não prende a thread virtual à
+    // thread de plataforma enquanto espera a busca.
+    private static final class Session {
+        final Game game;
+        final ChessAI ai;
+        final boolean aiWhite;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile long lastAccess = System.currentTimeMillis();
+
+        Session(Game game, ChessAI ai, boolean aiWhite) {
+            this.game = game;
+            this.ai = ai;
+            this.aiWhite = aiWhite;
+        }
+    }
+
+    public GameServer(int port, int searchThreads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        requestExecutor = newSessionExecutor();
+        searchPool = Executors.newFixedThreadPool(searchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "game-server-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-server-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(requestExecutor);
+        server.createContext("/games", this::handle);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int searchThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        GameServer gameServer = new GameServer(port, searchThreads);
+        gameServer.start();
+        System.out.println("Servidor de partidas em http://localhost:" + gameServer.getPort() + "/games");
+    }
+
+    // Threads virtuais quando o Java as oferece (21+); senão, um pool de threads comuns que cresce sob demanda
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    public void start() {
+        server.start();
+        sweeper.scheduleWithFixedDelay(this::removeIdleSessions, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        sweeper.shutdownNow();
+        searchPool.shutdownNow();
+        requestExecutor.shutdownNow();
+    }
+
+    private void removeIdleSessions() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> now - session.lastAccess > SESSION_TIMEOUT_MS);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String method = exchange.getRequestMethod();
+            Map<String, String> query = parseQuery(exchange.getRequestURI());
+            if (path.length == 2 && method.equals("POST")) {
+                createGame(exchange, query);
+                return;
+            }
+            Session session = path.length >= 3 ? sessions.get(path[2]) : null;
+            if (session == null) {
+                send(exchange, 404, "{\"error\":\"Partida não encontrada\"}");
+                return;
+            }
+            session.lastAccess = System.currentTimeMillis();
+            if (path.length == 3 && method.equals("GET")) {
+                send(exchange, 200, withLock(session, () -> state(path[2], session, null)));
+            } else if (path.length == 3 && method.equals("DELETE")) {
+                sessions.remove(path[2]);
+                send(exchange, 200, "{\"id\":\"" + path[2] + "\",\"status\":\"closed\"}");
+            } else if (path.length == 4 && path[3].equals("move") && method.equals("POST")) {
+                String move = query.containsKey("move") ? query.get("move") : readBody(exchange);
+                send(exchange, 200, withLock(session, () -> playMove(path[2], session, move.trim())));
+            } else {
+                send(exchange, 405, "{\"error\":\"Operação não suportada\"}");
+            }
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, "{\"error\":" + quote(e.getMessage()) + "}");
+        } catch (RuntimeException e) {
+            send(exchange, 500, "{\"error\":" + quote(String.valueOf(e)) + "}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private interface SessionAction {
+        String run();
+    }
+
+    private static String withLock(Session session, SessionAction action) {
+        session.lock.lock();
+        try {
+            return action.run();
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    private void createGame(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String color = query.getOrDefault("color", "white");
+        if (!color.equals("white") && !color.equals("black")) {
+            throw new IllegalArgumentException("Cor inválida: " + color);
+        }
+        ChessAI.Difficulty level = ChessAI.Difficulty.valueOf(query.getOrDefault("level", "MEDIUM").toUpperCase());
+        Game game = new Game();
+        ChessAI ai = new ChessAI(game);
+        ai.setVerbose(false);
+        ai.setDifficulty(level);
+        Session session = new Session(game, ai, color.equals("black"));
+        String id = UUID.randomUUID().toString();
+        sessions.put(id, session);
+        String aiMove = withLock(session, () -> session.aiWhite ? playAI(session) : null);
+        send(exchange, 201, withLock(session, () -> state(id, session, aiMove)));
+    }
+
+    private String playMove(String id, Session session, String move) {
+        Game game = session.game;
+        if (game.isGameOver() || game.isDraw() || game.getLegalMoves().isEmpty()) {
+            throw new IllegalArgumentException("A partida já terminou");
+        }
+        if (game.isWhiteTurn() == session.aiWhite) {
+            throw new IllegalArgumentException("Não é a vez do jogador");
+        }
+        if (!Uci.playUciMove(game, move)) {
+            throw new IllegalArgumentException("Lance ilegal: " + move);
+        }
+        String aiMove = game.getLegalMoves().isEmpty() ? null : playAI(session);
+        return state(id, session, aiMove);
+    }
+
+    // A busca roda no pool de busca; a thread da requisição só espera o resultado
+    private String playAI(Session session) {
+        int plies = session.game.getMoveHistory().size();
+        Future<?> search = searchPool.submit(session.ai::makeMove);
+        try {
+            search.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            search.cancel(true);
+            throw new IllegalStateException("Busca interrompida");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro na busca da IA: " + e.getCause(), e.getCause());
+        }
+        List<Move> history = session.game.getMoveHistory();
+        return history.size() > plies ? Uci.toUci(history.get(history.size() - 1)) : null;
+    }
+
+    private static String state(String id, Session session, String aiMove) {
+        Game game = session.game;
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"id\":\"").append(id).append('"');
+        json.append(",\"fen\":").append(quote(game.toFen()));
+        json.append(",\"turn\":\"").append(game.isWhiteTurn() ? "white" : "black").append('"');
+        json.append(",\"player\":\"").append(session.aiWhite ? "black" : "white").append('"');
+        json.append(",\"status\":\"").append(status(game)).append('"');
+        if (aiMove != null) {
+            json.append(",\"aiMove\":\"").append(aiMove).append('"');
+        }
+        json.append(",\"moves\":[");
+        List<Move> history = game.getMoveHistory();
+        for (int i = 0; i < history.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append('"').append(Uci.toUci(history.get(i))).append('"');
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    private static String status(Game game) {
+        if (game.getLegalMoves().isEmpty()) {
+            return game.isInCheck(game.isWhiteTurn()) ? "checkmate" : "stalemate";
+        }
+        if (game.isDraw()) {
+            return "draw";
+        }
+        return game.isInCheck(game.isWhiteTurn()) ? "check" : "playing";
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new ConcurrentHashMap<>();
+        String raw = uri.getQuery();
+        if (raw == null) return query;
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) query.put(pair.substring(0, equals), pair.substring(equals + 1));
+        }
+        return query;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_SIZE);
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') quoted.append('\\').append(c);
+            else if (c < 0x20) quoted.append(String.format("\\u%04x", (int) c));
+            else quoted.append(c);
+        }
+        return quoted.append('"').toString();
+    }
+}
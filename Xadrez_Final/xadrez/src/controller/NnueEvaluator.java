@@ -0,0 +1,167 @@
+package controller;
+
+import model.board.Board;
+import model.board.Move;
+import model.board.Position;
+import model.pieces.Bishop;
+import model.pieces.King;
+import model.pieces.Knight;
+import model.pieces.Pawn;
+import model.pieces.Piece;
+import model.pieces.Queen;
+
+// Avaliador NNUE: um acumulador da primeira camada por ply e por perspectiva, atualizado só com as
+// entradas que o lance muda. Os laços sobre a camada oculta são contíguos e sem desvios para que o
+// compilador C2 os vetorize com SIMD em x86 e ARM, sem exigir o módulo incubado jdk.incubator.vector.
+// Cada ChessAI precisa da sua instância; a NnueNetwork (só leitura) pode ser compartilhada.
+public class NnueEvaluator implements Evaluator {
+    private static final int MAX_PLY = 128;
+    private static final int PAWN = 0;
+    private static final int ROOK = 3;
+    private static final int QUEEN = 4;
+
+    private final NnueNetwork network;
+    private final int hidden;
+    private final short[][] whiteAccumulators;
+    private final short[][] blackAccumulators;
+
+    public NnueEvaluator(NnueNetwork network) {
+        this.network = network;
+        this.hidden = network.hidden;
+        this.whiteAccumulators = new short[MAX_PLY][hidden];
+        this.blackAccumulators = new short[MAX_PLY][hidden];
+    }
+
+    @Override
+    public void reset(Board board) {
+        short[] white = whiteAccumulators[0];
+        short[] black = blackAccumulators[0];
+        System.arraycopy(network.inputBias, 0, white, 0, hidden);
+        System.arraycopy(network.inputBias, 0, black, 0, hidden);
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board.getPieceAt(new Position(row, col));
+                if (piece != null) {
+                    add(white, feature(true, piece, row * 8 + col));
+                    add(black, feature(false, piece, row * 8 + col));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void makeMove(Move move, int ply) {
+        if (ply + 1 >= MAX_PLY) {
+            throw new IllegalStateException("Profundidade máxima do avaliador excedida: " + ply);
+        }
+        short[] white = whiteAccumulators[ply + 1];
+        short[] black = blackAccumulators[ply + 1];
+        System.arraycopy(whiteAccumulators[ply], 0, white, 0, hidden);
+        System.arraycopy(blackAccumulators[ply], 0, black, 0, hidden);
+
+        Piece piece = move.getPiece();
+        int from = square(move.getFrom());
+        int to = square(move.getTo());
+        if (piece instanceof Pawn && (move.getTo().getRow() == 0 || move.getTo().getRow() == 7)) {
+            // Promoção, como em ChessAI.makeTestMove: o peão sai e a peça nova entra
+            int promoted = promotionType(move.getPromotionPiece());
+            subtract(white, feature(true, piece.isWhite(), PAWN, from));
+            subtract(black, feature(false, piece.isWhite(), PAWN, from));
+            add(white, feature(true, piece.isWhite(), promoted, to));
+            add(black, feature(false, piece.isWhite(), promoted, to));
+        } else {
+            movePiece(white, black, piece.isWhite(), pieceType(piece), from, to);
+        }
+
+        Piece captured = move.getCapturedPiece();
+        if (captured != null) {
+            subtract(white, feature(true, captured, to));
+            subtract(black, feature(false, captured, to));
+        } else if (piece instanceof Pawn && move.getFrom().getColumn() != move.getTo().getColumn()) {
+            // En passant, como em ChessAI.makeTestMove: o peão vai na diagonal para uma casa vazia e o
+            // peão capturado está ao lado da casa de origem
+            int capturedSquare = move.getFrom().getRow() * 8 + move.getTo().getColumn();
+            subtract(white, feature(true, !piece.isWhite(), PAWN, capturedSquare));
+            subtract(black, feature(false, !piece.isWhite(), PAWN, capturedSquare));
+        }
+
+        // Roque: a torre também muda de casa
+        if (piece instanceof King && Math.abs(move.getTo().getColumn() - move.getFrom().getColumn()) == 2) {
+            int row = move.getFrom().getRow();
+            boolean kingSide = move.getTo().getColumn() == 6;
+            movePiece(white, black, piece.isWhite(), ROOK, row * 8 + (kingSide ? 7 : 0), row * 8 + (kingSide ? 5 : 3));
+        }
+    }
+
+    @Override
+    public int evaluate(Board board, boolean whiteToMove, int ply) {
+        short[] us = whiteToMove ? whiteAccumulators[ply] : blackAccumulators[ply];
+        short[] them = whiteToMove ? blackAccumulators[ply] : whiteAccumulators[ply];
+        short[] weights = network.outputWeights;
+
+        long sum = 0;
+        for (int i = 0; i < hidden; i++) {
+            int value = Math.min(Math.max(us[i], 0), NnueNetwork.QA);
+            sum += value * weights[i];
+        }
+        for (int i = 0; i < hidden; i++) {
+            int value = Math.min(Math.max(them[i], 0), NnueNetwork.QA);
+            sum += value * weights[hidden + i];
+        }
+        return (int) ((sum + network.outputBias) * NnueNetwork.SCALE / (NnueNetwork.QA * NnueNetwork.QB));
+    }
+
+    private void movePiece(short[] white, short[] black, boolean pieceWhite, int type, int from, int to) {
+        subtract(white, feature(true, pieceWhite, type, from));
+        add(white, feature(true, pieceWhite, type, to));
+        subtract(black, feature(false, pieceWhite, type, from));
+        add(black, feature(false, pieceWhite, type, to));
+    }
+
+    private void add(short[] accumulator, int feature) {
+        short[] weights = network.inputWeights;
+        int offset = feature * hidden;
+        for (int i = 0; i < hidden; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    private void subtract(short[] accumulator, int feature) {
+        short[] weights = network.inputWeights;
+        int offset = feature * hidden;
+        for (int i = 0; i < hidden; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    // Entrada = (cor relativa * 6 + tipo) * 64 + casa, com as casas vistas do lado da perspectiva
+    // (primeira fileira = 0..7)
+    static int feature(boolean whitePerspective, boolean pieceWhite, int type, int square) {
+        int side = pieceWhite == whitePerspective ? 0 : 1;
+        int relativeSquare = whitePerspective ? square ^ 56 : square;
+        return (side * 6 + type) * 64 + relativeSquare;
+    }
+
+    private static int feature(boolean whitePerspective, Piece piece, int square) {
+        return feature(whitePerspective, piece.isWhite(), pieceType(piece), square);
+    }
+
+    private static int pieceType(Piece piece) {
+        if (piece instanceof Pawn) return PAWN;
+        if (piece instanceof Knight) return 1;
+        if (piece instanceof Bishop) return 2;
+        if (piece instanceof Queen) return QUEEN;
+        if (piece instanceof King) return 5;
+        return ROOK;
+    }
+
+    // Sem escolha no lance, dama
+    private static int promotionType(char promotion) {
+        int type = "NBR".indexOf(promotion);
+        return type < 0 ? QUEEN : type + 1;
+    }
+
+    private static int square(Position position) {
+        return position.getRow() * 8 + position.getColumn();
+    }
+}
@@ -0,0 +1,75 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Pesos quantizados de uma rede 768 -> 2 x N -> 1 (entradas = cor relativa x tipo x casa, vistas de cada lado).
+// Arquivo little-endian: "XNN1", N (int32), pesos de entrada (768 x N int16), viés de entrada (N int16),
+// pesos de saída (2N int16: primeiro o lado que joga) e viés de saída (int32).
+public class NnueNetwork {
+    public static final int INPUTS = 768;
+    public static final int QA = 255;
+    public static final int QB = 64;
+    public static final int SCALE = 400;
+
+    private static final int MAGIC = 0x314E4E58; // "XNN1"
+    private static final int MAX_HIDDEN = 4096;
+
+    final int hidden;
+    final short[] inputWeights;
+    final short[] inputBias;
+    final short[] outputWeights;
+    final int outputBias;
+
+    NnueNetwork(int hidden, short[] inputWeights, short[] inputBias, short[] outputWeights, int outputBias) {
+        this.hidden = hidden;
+        this.inputWeights = inputWeights;
+        this.inputBias = inputBias;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    public static NnueNetwork load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, 8);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Arquivo de rede inválido: " + path);
+            }
+            int hidden = header.getInt();
+            if (hidden <= 0 || hidden > MAX_HIDDEN) {
+                throw new IOException("Tamanho de camada inválido: " + hidden);
+            }
+
+            short[] inputWeights = readShorts(channel, INPUTS * hidden);
+            short[] inputBias = readShorts(channel, hidden);
+            short[] outputWeights = readShorts(channel, 2 * hidden);
+            int outputBias = read(channel, Integer.BYTES).getInt();
+            return new NnueNetwork(hidden, inputWeights, inputBias, outputWeights, outputBias);
+        }
+    }
+
+    public int getHiddenSize() {
+        return hidden;
+    }
+
+    private static short[] readShorts(FileChannel channel, int count) throws IOException {
+        short[] values = new short[count];
+        read(channel, count * Short.BYTES).asShortBuffer().get(values);
+        return values;
+    }
+
+    private static ByteBuffer read(FileChannel channel, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Arquivo de rede truncado");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
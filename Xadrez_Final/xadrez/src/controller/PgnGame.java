@@ -0,0 +1,60 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import model.board.Move;
+
+// Uma partida lida de um PGN: as tags, os lances em SAN (sem comentários nem variantes) e o resultado.
+// Os lances só são conferidos ao refazer a partida (replay), o que permite ler arquivos grandes
+// rapidamente e validar as partidas em paralelo.
+public class PgnGame {
+    public static final String UNKNOWN_RESULT = "*";
+
+    private final Map<String, String> tags;
+    private final List<String> moves;
+    private final String result;
+
+    public PgnGame(Map<String, String> tags, List<String> moves, String result) {
+        this.tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        this.moves = Collections.unmodifiableList(new ArrayList<>(moves));
+        this.result = result;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public List<String> getMoves() {
+        return moves;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    // Refaz os lances a partir da posição inicial (ou da tag FEN); um lance inválido gera IllegalArgumentException
+    public Game replay() {
+        String fen = tags.get("FEN");
+        Game game = fen != null ? Game.fromFen(fen) : new Game();
+        for (int i = 0; i < moves.size(); i++) {
+            Move move;
+            try {
+                move = San.parse(game, moves.get(i));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Lance " + (i + 1) + " (" + moves.get(i) + "): " + e.getMessage(), e);
+            }
+            char promotion = move.isPromotion() ? move.getPromotionPiece() : 'Q';
+            if (!game.movePiece(move.getFrom(), move.getTo(), promotion)) {
+                throw new IllegalArgumentException("Lance " + (i + 1) + " ilegal: " + moves.get(i));
+            }
+        }
+        return game;
+    }
+}
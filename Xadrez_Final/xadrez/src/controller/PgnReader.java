@@ -0,0 +1,202 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Leitura de PGN em fluxo: uma partida por vez, direto do canal, sem carregar o arquivo inteiro.
+// Comentários ({...} e ;), variantes entre parênteses, NAGs ($n) e números de lance são descartados.
+// A leitura não valida os lances; isso fica para PgnGame.replay, que pode rodar em paralelo:
+//   try (PgnReader reader = PgnReader.open(path)) {
+//       reader.stream().parallel().map(PgnGame::replay)...
+//   }
+public class PgnReader implements Iterator<PgnGame>, Closeable {
+    private final BufferedReader reader;
+    private String pendingLine; // tag de uma nova partida lida antes da linha em branco
+    private PgnGame next;
+    private boolean finished;
+
+    public PgnReader(ReadableByteChannel channel) {
+        // Arquivos PGN antigos são Latin-1; caracteres inválidos em UTF-8 viram '?' em vez de erro
+        this.reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE), -1));
+    }
+
+    public static PgnReader open(Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    // Partidas restantes, lidas sob demanda. Fechar o fluxo fecha o leitor.
+    public Stream<PgnGame> stream() {
+        Spliterator<PgnGame> games = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(games, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            try {
+                next = readGame();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            finished = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public PgnGame next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        PgnGame game = next;
+        next = null;
+        return game;
+    }
+
+    // Próxima partida do arquivo, ou null no fim
+    public PgnGame readGame() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+        String result = PgnGame.UNKNOWN_RESULT;
+        boolean inMoves = false;
+        int commentDepth = 0;
+        int variationDepth = 0;
+
+        String line;
+        while ((line = nextLine()) != null) {
+            if (commentDepth == 0 && variationDepth == 0) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.charAt(0) == '%') {
+                    if (inMoves && trimmed.isEmpty() && !moves.isEmpty()) break;
+                    continue;
+                }
+                if (trimmed.charAt(0) == '[') {
+                    if (inMoves) {
+                        // Partida sem resultado nem linha em branco no fim: a tag já é da próxima
+                        pendingLine = line;
+                        break;
+                    }
+                    readTag(trimmed, tags);
+                    continue;
+                }
+            }
+
+            inMoves = true;
+            int i = 0;
+            int length = line.length();
+            boolean ended = false;
+            while (i < length) {
+                char c = line.charAt(i);
+                if (commentDepth > 0) {
+                    if (c == '}') commentDepth = 0;
+                    i++;
+                } else if (c == '{') {
+                    commentDepth = 1;
+                    i++;
+                } else if (c == ';') {
+                    break;
+                } else if (c == '(') {
+                    variationDepth++;
+                    i++;
+                } else if (c == ')') {
+                    if (variationDepth > 0) variationDepth--;
+                    i++;
+                } else if (Character.isWhitespace(c) || c == '.') {
+                    i++;
+                } else {
+                    int start = i;
+                    while (i < length && !isDelimiter(line.charAt(i))) i++;
+                    if (variationDepth > 0) continue;
+                    String token = line.substring(start, i);
+                    if (isResult(token)) {
+                        result = token;
+                        ended = true;
+                        break;
+                    }
+                    if (c != '$' && !Character.isDigit(c)) {
+                        moves.add(token);
+                    } else if (Character.isDigit(c) && token.indexOf('-') > 0) {
+                        // "0-0" escrito com zeros
+                        moves.add(token);
+                    }
+                }
+            }
+            if (ended) break;
+        }
+
+        if (!inMoves && tags.isEmpty()) {
+            return null;
+        }
+        return new PgnGame(tags, moves, result);
+    }
+
+    private String nextLine() throws IOException {
+        if (pendingLine != null) {
+            String line = pendingLine;
+            pendingLine = null;
+            return line;
+        }
+        return reader.readLine();
+    }
+
+    // [Nome "valor"], com \" e \\ escapados no valor
+    private static void readTag(String line, Map<String, String> tags) {
+        int nameEnd = 1;
+        while (nameEnd < line.length() && !Character.isWhitespace(line.charAt(nameEnd))
+                && line.charAt(nameEnd) != '"') nameEnd++;
+        int quote = line.indexOf('"', nameEnd);
+        if (quote < 0) return;
+        StringBuilder value = new StringBuilder();
+        for (int i = quote + 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                value.append(line.charAt(++i));
+            } else if (c == '"') {
+                break;
+            } else {
+                value.append(c);
+            }
+        }
+        tags.put(line.substring(1, nameEnd), value.toString());
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '}' || c == '(' || c == ')' || c == ';'
+                || c == '.';
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
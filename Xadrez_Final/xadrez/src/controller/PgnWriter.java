@@ -0,0 +1,147 @@
+package controller;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import model.board.Move;
+
+// Escrita de PGN em fluxo: cada partida vai direto para o canal, com as sete tags obrigatórias
+// primeiro e os lances em SAN quebrados em linhas de até 80 caracteres.
+public class PgnWriter implements Closeable, Flushable {
+    private static final String[] SEVEN_TAG_ROSTER = { "Event", "Site", "Date", "Round", "White", "Black", "Result" };
+    private static final int MAX_LINE_LENGTH = 79;
+
+    private final Writer writer;
+
+    public PgnWriter(WritableByteChannel channel) {
+        this.writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    public static PgnWriter open(Path path, boolean append) throws IOException {
+        return new PgnWriter(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    // Escreve a partida refazendo os lances a partir da posição inicial; tags ausentes ficam com "?"
+    public void write(Game game, Map<String, String> tags) throws IOException {
+        Game replay = game.getStartFen() != null ? Game.fromFen(game.getStartFen()) : new Game();
+        StringBuilder moves = new StringBuilder(game.getMoveHistory().size() * 6);
+        int lineStart = 0;
+        for (Move move : game.getMoveHistory()) {
+            StringBuilder token = new StringBuilder(12);
+            if (replay.isWhiteTurn()) {
+                token.append(replay.getFullMoveNumber()).append(". ");
+            } else if (moves.length() == 0) {
+                token.append(replay.getFullMoveNumber()).append("... ");
+            }
+            token.append(San.play(replay, move));
+            lineStart = appendToken(moves, lineStart, token);
+        }
+        String result = resultOf(game, tags.get("Result"));
+        appendToken(moves, lineStart, result);
+
+        Map<String, String> header = new LinkedHashMap<>();
+        for (String name : SEVEN_TAG_ROSTER) {
+            header.put(name, tags.getOrDefault(name, "?"));
+        }
+        header.put("Result", result);
+        if (game.getStartFen() != null) {
+            header.put("SetUp", "1");
+            header.put("FEN", game.getStartFen());
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            header.putIfAbsent(tag.getKey(), tag.getValue());
+        }
+        writeGame(header, moves);
+    }
+
+    // Reescreve uma partida lida de outro PGN, sem refazer os lances
+    public void write(PgnGame game) throws IOException {
+        StringBuilder moves = new StringBuilder(game.getMoves().size() * 6);
+        int lineStart = 0;
+        int number = 1;
+        boolean white = true;
+        String fen = game.getTag("FEN");
+        if (fen != null) {
+            Game start = Game.fromFen(fen);
+            number = start.getFullMoveNumber();
+            white = start.isWhiteTurn();
+        }
+        for (String san : game.getMoves()) {
+            StringBuilder token = new StringBuilder(12);
+            if (white) {
+                token.append(number).append(". ");
+            } else if (moves.length() == 0) {
+                token.append(number).append("... ");
+            }
+            token.append(san);
+            lineStart = appendToken(moves, lineStart, token);
+            if (!white) number++;
+            white = !white;
+        }
+        appendToken(moves, lineStart, game.getResult());
+
+        Map<String, String> header = new LinkedHashMap<>();
+        for (String name : SEVEN_TAG_ROSTER) {
+            header.put(name, game.getTags().getOrDefault(name, "?"));
+        }
+        header.put("Result", game.getResult());
+        header.putAll(game.getTags());
+        writeGame(header, moves);
+    }
+
+    private static int appendToken(StringBuilder moves, int lineStart, CharSequence token) {
+        if (moves.length() > lineStart) {
+            if (moves.length() - lineStart + 1 + token.length() > MAX_LINE_LENGTH) {
+                moves.append('\n');
+                lineStart = moves.length();
+            } else {
+                moves.append(' ');
+            }
+        }
+        moves.append(token);
+        return lineStart;
+    }
+
+    private void writeGame(Map<String, String> header, CharSequence moves) throws IOException {
+        for (Map.Entry<String, String> tag : header.entrySet()) {
+            writer.write('[');
+            writer.write(tag.getKey());
+            writer.write(" \"");
+            writer.write(tag.getValue().replace("\\", "\\\\").replace("\"", "\\\""));
+            writer.write("\"]\n");
+        }
+        writer.write('\n');
+        writer.append(moves);
+        writer.write("\n\n");
+    }
+
+    // Mate ou empate encerram a partida; senão vale o resultado informado, ou "*"
+    private static String resultOf(Game game, String declared) {
+        if (game.getLegalMoves().isEmpty()) {
+            if (!game.isInCheck(game.isWhiteTurn())) return "1/2-1/2";
+            return game.isWhiteTurn() ? "0-1" : "1-0";
+        }
+        return declared != null ? declared : PgnGame.UNKNOWN_RESULT;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
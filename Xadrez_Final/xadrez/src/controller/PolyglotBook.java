@@ -0,0 +1,163 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import model.board.Board;
+import model.board.Move;
+import model.board.Position;
+import model.board.Zobrist;
+import model.pieces.King;
+import model.pieces.Piece;
+
+// Livro de aberturas Polyglot (.bin) lido por um FileChannel mapeado em memória.
+// Cada entrada tem 16 bytes big-endian: chave (8), lance (2), peso (2) e aprendizado (4),
+// ordenadas pela chave, o que permite busca binária sem carregar o livro no heap.
+public class PolyglotBook implements Closeable {
+    private static final int ENTRY_SIZE = 16;
+    private static final String PROMOTION_PIECES = "-NBRQ";
+    // Chave da posição inicial com a tabela Random64 oficial (exemplo da especificação do formato)
+    private static final long START_POSITION_KEY = 0x463B96181691FC9CL;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int entryCount;
+    private final Zobrist zobrist;
+    private final Random random = new Random();
+
+    private PolyglotBook(FileChannel channel, MappedByteBuffer buffer, int entryCount, Zobrist zobrist) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.entryCount = entryCount;
+        this.zobrist = zobrist;
+    }
+
+    public static PolyglotBook open(Path path, Zobrist zobrist) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Livro de aberturas grande demais: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return new PolyglotBook(channel, buffer, (int) (size / ENTRY_SIZE), zobrist);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Confere se as chaves são as do Polyglot; com outras, nenhuma posição de um livro publicado é encontrada
+    public static boolean isPolyglotKeys(Zobrist zobrist) {
+        Game start = new Game();
+        return zobrist.hash(start.getBoard(), true, null) == START_POSITION_KEY;
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    // Retorna um lance do livro escolhido pelo peso, ou null se a posição não estiver no livro
+    public Move probe(Game game) {
+        Board board = game.getBoard();
+        long key = zobrist.hash(board, game.isWhiteTurn(), game.getLastPawnDoubleMove());
+
+        List<Move> moves = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int totalWeight = 0;
+        for (int i = lowerBound(key); i < entryCount && entryKey(i) == key; i++) {
+            int offset = i * ENTRY_SIZE;
+            Move move = decodeMove(game, buffer.getShort(offset + 8) & 0xFFFF);
+            if (move != null) {
+                int weight = buffer.getShort(offset + 10) & 0xFFFF;
+                moves.add(move);
+                weights.add(weight);
+                totalWeight += weight;
+            }
+        }
+
+        if (moves.isEmpty()) {
+            return null;
+        }
+        if (totalWeight == 0) {
+            return moves.get(0);
+        }
+        int pick = random.nextInt(totalWeight);
+        for (int i = 0; i < moves.size(); i++) {
+            pick -= weights.get(i);
+            if (pick < 0) {
+                return moves.get(i);
+            }
+        }
+        return moves.get(moves.size() - 1);
+    }
+
+    private long entryKey(int index) {
+        return buffer.getLong(index * ENTRY_SIZE);
+    }
+
+    // Primeira entrada cuja chave (sem sinal) é maior ou igual à procurada
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(entryKey(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Lance Polyglot: bits 0-5 destino, 6-11 origem (fileira 0 = primeira), 12-14 promoção
+    // (0 nenhuma, 1 cavalo, 2 bispo, 3 torre, 4 dama). O roque vem como "rei captura a própria torre"
+    // e é convertido para o destino do rei. Lances que não são legais no tabuleiro atual (colisão de
+    // hash) são descartados.
+    private Move decodeMove(Game game, int encoded) {
+        int toCol = encoded & 7;
+        int toRow = 7 - ((encoded >> 3) & 7);
+        int fromCol = (encoded >> 6) & 7;
+        int fromRow = 7 - ((encoded >> 9) & 7);
+        int promotion = (encoded >> 12) & 7;
+        if (promotion >= PROMOTION_PIECES.length()) {
+            return null;
+        }
+
+        Board board = game.getBoard();
+        Position from = new Position(fromRow, fromCol);
+        Piece piece = board.getPieceAt(from);
+        if (piece == null || piece.isWhite() != game.isWhiteTurn()) {
+            return null;
+        }
+
+        if (piece instanceof King && fromCol == 4 && fromRow == toRow && (toCol == 7 || toCol == 0)) {
+            toCol = toCol == 7 ? 6 : 2;
+        }
+        Position to = new Position(toRow, toCol);
+
+        if (!piece.canMoveTo(to) || game.moveCausesCheck(piece, to)) {
+            return null;
+        }
+        Move move = new Move(from, to, piece, board.getPieceAt(to));
+        if (promotion != 0) {
+            move.setPromotion(true);
+            move.setPromotionPiece(PROMOTION_PIECES.charAt(promotion));
+        }
+        return move;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
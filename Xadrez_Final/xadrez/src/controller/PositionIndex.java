@@ -0,0 +1,147 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import model.board.Position;
+
+// Índice de posições de uma coleção de partidas, ordenado pelo hash Zobrist e mapeado em memória
+// (big-endian; montado por PositionIndexBuilder):
+//   cabeçalho (HEADER_SIZE): "XPI1", versão (2), reservado (2), número de partidas (4), reservado (4),
+//                            número de entradas (8)
+//   entradas de ENTRY_SIZE bytes, em ordem crescente de hash: hash (8), partida (4), ply (2) e o lance
+//   jogado a seguir no formato de Game.encodeMove (2; 0 = fim da partida)
+// A busca é binária, direto no arquivo mapeado, em trechos de até SEGMENT_ENTRIES entradas.
+public class PositionIndex implements Closeable {
+    public static final String FILE_EXTENSION = ".idx";
+    static final int MAGIC = 0x58504931; // "XPI1"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int ENTRY_SIZE = 16;
+    private static final int SEGMENT_ENTRIES = 1 << 26; // 1 GiB por trecho mapeado
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int gameCount;
+    private final long entryCount;
+
+    // Uma ocorrência da posição: em qual partida, em qual ply e o que foi jogado depois
+    public static final class Entry {
+        private final int game;
+        private final int ply;
+        private final int nextMove;
+
+        Entry(int game, int ply, int nextMove) {
+            this.game = game;
+            this.ply = ply;
+            this.nextMove = nextMove;
+        }
+
+        public int getGame() {
+            return game;
+        }
+
+        public int getPly() {
+            return ply;
+        }
+
+        // Lance seguinte no formato de Game.encodeMove, ou 0 se a partida terminou nesta posição
+        public int getNextMove() {
+            return nextMove;
+        }
+
+        public Position getNextFrom() {
+            return nextMove == 0 ? null : new Position((nextMove >>> 10) / 8, (nextMove >>> 10) % 8);
+        }
+
+        public Position getNextTo() {
+            return nextMove == 0 ? null : new Position(((nextMove >>> 4) & 63) / 8, ((nextMove >>> 4) & 63) % 8);
+        }
+    }
+
+    private PositionIndex(FileChannel channel, MappedByteBuffer[] segments, int gameCount, long entryCount) {
+        this.channel = channel;
+        this.segments = segments;
+        this.gameCount = gameCount;
+        this.entryCount = entryCount;
+    }
+
+    public static PositionIndex open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(HEADER_SIZE, channel.size()));
+            if (header.limit() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IOException("Não é um índice de posições: " + path);
+            }
+            if (header.getShort(4) != VERSION) {
+                throw new IOException("Versão de índice não suportada: " + header.getShort(4));
+            }
+            int gameCount = header.getInt(8);
+            long entryCount = header.getLong(16);
+            if (entryCount < 0 || HEADER_SIZE + entryCount * ENTRY_SIZE != channel.size()) {
+                throw new IOException("Índice de posições corrompido: " + path);
+            }
+
+            int count = (int) ((entryCount + SEGMENT_ENTRIES - 1) / SEGMENT_ENTRIES);
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long first = (long) i * SEGMENT_ENTRIES;
+                long entries = Math.min(SEGMENT_ENTRIES, entryCount - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * ENTRY_SIZE,
+                        entries * ENTRY_SIZE);
+            }
+            return new PositionIndex(channel, segments, gameCount, entryCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public List<Entry> lookup(Game game) {
+        return lookup(game.getPositionKey());
+    }
+
+    // Todas as ocorrências do hash, em ordem de partida e ply
+    public List<Entry> lookup(long hash) {
+        long low = 0, high = entryCount;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (hashAt(middle) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (long i = low; i < entryCount && hashAt(i) == hash; i++) {
+            MappedByteBuffer segment = segments[(int) (i / SEGMENT_ENTRIES)];
+            int offset = (int) (i % SEGMENT_ENTRIES) * ENTRY_SIZE;
+            entries.add(new Entry(segment.getInt(offset + 8), segment.getShort(offset + 12) & 0xFFFF,
+                    segment.getShort(offset + 14) & 0xFFFF));
+        }
+        return entries;
+    }
+
+    private long hashAt(long entry) {
+        return segments[(int) (entry / SEGMENT_ENTRIES)].getLong((int) (entry % SEGMENT_ENTRIES) * ENTRY_SIZE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,300 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import model.board.Move;
+
+// Monta um PositionIndex sem interface gráfica:
+//   java controller.PositionIndexBuilder <saída.idx> <entrada.pgn | .xar | partida salva>...
+// As partidas são refeitas em paralelo, em lotes; as entradas vão para um buffer de tamanho fixo que,
+// quando cheio, é ordenado e gravado num arquivo temporário. No fim, os arquivos temporários são
+// intercalados no índice final. A memória usada depende só do tamanho desse buffer, não do número de partidas.
+// O número de cada partida é a sua ordem nas entradas (em um .xar, o próprio índice da partida).
+public class PositionIndexBuilder implements Closeable {
+    private static final int DEFAULT_RUN_ENTRIES = 1 << 20; // 16 MiB de entradas na memória
+    private static final int BATCH_SIZE = 256;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final Path output;
+    private final long[] hashes;
+    private final long[] values; // partida << 32 | ply << 16 | lance
+    private final List<Path> runs = new ArrayList<>();
+    private int size;
+    private int gameCount;
+    private int skipped;
+
+    public PositionIndexBuilder(Path output) {
+        this(output, DEFAULT_RUN_ENTRIES);
+    }
+
+    // runEntries: quantas entradas ficam na memória antes de cada gravação em arquivo temporário
+    public PositionIndexBuilder(Path output, int runEntries) {
+        this.output = output;
+        this.hashes = new long[runEntries];
+        this.values = new long[runEntries];
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: java controller.PositionIndexBuilder <saída.idx> <entrada.pgn | .xar | partida salva>...");
+            System.exit(1);
+        }
+
+        long start = System.currentTimeMillis();
+        try (PositionIndexBuilder builder = new PositionIndexBuilder(Paths.get(args[0]))) {
+            for (int i = 1; i < args.length; i++) {
+                builder.add(Paths.get(args[i]));
+            }
+            builder.finish();
+            System.out.printf("%d partidas indexadas (%d ignoradas) em %d ms%n", builder.gameCount, builder.skipped,
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    public void add(Path input) throws IOException {
+        String name = input.getFileName().toString().toLowerCase();
+        if (name.endsWith(".pgn")) {
+            try (PgnReader reader = PgnReader.open(input)) {
+                List<PgnGame> batch = new ArrayList<>(BATCH_SIZE);
+                while (reader.hasNext()) {
+                    batch.add(reader.next());
+                    if (batch.size() == BATCH_SIZE || !reader.hasNext()) {
+                        addBatch(batch.parallelStream().map(PositionIndexBuilder::replayOrNull)
+                                .map(PositionIndexBuilder::positions).collect(Collectors.toList()));
+                        batch.clear();
+                    }
+                }
+            }
+        } else if (name.endsWith(GameArchive.FILE_EXTENSION)) {
+            try (GameArchive archive = GameArchive.open(input)) {
+                for (int first = 0; first < archive.size(); first += BATCH_SIZE) {
+                    addBatch(IntStream.range(first, Math.min(archive.size(), first + BATCH_SIZE)).parallel()
+                            .mapToObj(game -> loadOrNull(archive, game))
+                            .map(PositionIndexBuilder::positions).collect(Collectors.toList()));
+                }
+            }
+        } else {
+            addBatch(List.of(positions(Game.loadGame(input))));
+        }
+    }
+
+    private static Game replayOrNull(PgnGame game) {
+        try {
+            return game.replay();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Partida ignorada: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Game loadOrNull(GameArchive archive, int game) {
+        try {
+            return archive.getGame(game);
+        } catch (IOException e) {
+            System.err.println("Partida ignorada: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Hash de cada posição da partida, seguido de ply << 16 | lance seguinte; null se a partida é inválida
+    private static long[] positions(Game game) {
+        if (game == null) {
+            return null;
+        }
+        Game replay = game.getStartFen() != null ? Game.fromFen(game.getStartFen()) : new Game();
+        List<Move> history = game.getMoveHistory();
+        int plies = Math.min(history.size(), 0xFFFF);
+        long[] positions = new long[2 * (plies + 1)];
+        for (int ply = 0; ply <= plies; ply++) {
+            int move = ply < plies ? Game.encodeMove(history.get(ply)) : 0;
+            positions[2 * ply] = replay.getPositionKey();
+            positions[2 * ply + 1] = (long) ply << 16 | move;
+            if (ply < plies) {
+                replay.playEncodedMove(move);
+            }
+        }
+        return positions;
+    }
+
+    private void addBatch(List<long[]> games) throws IOException {
+        for (long[] positions : games) {
+            int game = gameCount++;
+            if (positions == null) {
+                skipped++;
+                continue;
+            }
+            for (int i = 0; i < positions.length; i += 2) {
+                if (size == hashes.length) {
+                    spill();
+                }
+                hashes[size] = positions[i];
+                values[size] = (long) game << 32 | positions[i + 1];
+                size++;
+            }
+        }
+    }
+
+    // Ordena o buffer e grava como um arquivo temporário ao lado da saída
+    private void spill() throws IOException {
+        if (size == 0) return;
+        sort(0, size - 1);
+        Path run = Files.createTempFile(output.toAbsolutePath().getParent(), "run", ".tmp");
+        runs.add(run);
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            for (int i = 0; i < size; i++) {
+                if (buffer.remaining() < PositionIndex.ENTRY_SIZE) {
+                    drain(channel, buffer);
+                }
+                buffer.putLong(hashes[i]).putLong(values[i]);
+            }
+            drain(channel, buffer);
+        }
+        size = 0;
+    }
+
+    // Quicksort pelos dois arrays ao mesmo tempo (hash, depois partida e ply)
+    private void sort(int low, int high) {
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long pivotHash = hashes[middle], pivotValue = values[middle];
+            int i = low, j = high;
+            while (i <= j) {
+                while (compare(hashes[i], values[i], pivotHash, pivotValue) < 0) i++;
+                while (compare(hashes[j], values[j], pivotHash, pivotValue) > 0) j--;
+                if (i <= j) {
+                    long hash = hashes[i]; hashes[i] = hashes[j]; hashes[j] = hash;
+                    long value = values[i]; values[i] = values[j]; values[j] = value;
+                    i++;
+                    j--;
+                }
+            }
+            // Recursão no lado menor, para limitar a pilha
+            if (j - low < high - i) {
+                sort(low, j);
+                low = i;
+            } else {
+                sort(i, high);
+                high = j;
+            }
+        }
+    }
+
+    private static int compare(long hash, long value, long otherHash, long otherValue) {
+        int result = Long.compare(hash, otherHash);
+        return result != 0 ? result : Long.compare(value, otherValue);
+    }
+
+    // Intercala os arquivos temporários no índice final
+    public void finish() throws IOException {
+        spill();
+        PriorityQueue<Run> queue = new PriorityQueue<>((a, b) -> compare(a.hash, a.value, b.hash, b.value));
+        long entryCount = 0;
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path path : runs) {
+                Run run = new Run(FileChannel.open(path, StandardOpenOption.READ));
+                if (run.next()) {
+                    queue.add(run);
+                } else {
+                    run.channel.close();
+                }
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            buffer.position(PositionIndex.HEADER_SIZE);
+            while (!queue.isEmpty()) {
+                Run run = queue.poll();
+                if (buffer.remaining() < PositionIndex.ENTRY_SIZE) {
+                    drain(out, buffer);
+                }
+                buffer.putLong(run.hash).putLong(run.value);
+                entryCount++;
+                if (run.next()) {
+                    queue.add(run);
+                } else {
+                    run.channel.close();
+                }
+            }
+            drain(out, buffer);
+
+            ByteBuffer header = ByteBuffer.allocate(PositionIndex.HEADER_SIZE);
+            header.putInt(PositionIndex.MAGIC);
+            header.putShort(PositionIndex.VERSION);
+            header.putShort((short) 0);
+            header.putInt(gameCount);
+            header.putInt(0);
+            header.putLong(entryCount);
+            header.flip();
+            while (header.hasRemaining()) {
+                out.write(header, header.position());
+            }
+        } finally {
+            for (Run run : queue) {
+                run.channel.close();
+            }
+            deleteRuns();
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void deleteRuns() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+    }
+
+    // Leitura sequencial de um arquivo temporário, uma entrada por vez
+    private static final class Run {
+        final FileChannel channel;
+        final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long hash;
+        long value;
+
+        Run(FileChannel channel) {
+            this.channel = channel;
+            buffer.limit(0);
+        }
+
+        boolean next() throws IOException {
+            if (buffer.remaining() < PositionIndex.ENTRY_SIZE) {
+                buffer.compact();
+                while (buffer.position() < PositionIndex.ENTRY_SIZE && channel.read(buffer) > 0) {
+                }
+                buffer.flip();
+                if (buffer.remaining() < PositionIndex.ENTRY_SIZE) {
+                    return false;
+                }
+            }
+            hash = buffer.getLong();
+            value = buffer.getLong();
+            return true;
+        }
+    }
+
+    // Descarta os arquivos temporários se o índice não chegou a ser concluído
+    @Override
+    public void close() throws IOException {
+        deleteRuns();
+    }
+}
@@ -0,0 +1,133 @@
+package controller;
+
+import java.nio.ByteBuffer;
+import model.board.Board;
+import model.board.Position;
+import model.pieces.*;
+
+// Registro binário de tamanho fixo de uma posição de treino (SIZE bytes, sem cabeçalho, para que arquivos
+// possam ser concatenados e lidos por índice):
+//   0..31  casas 0..63 (linha * 8 + coluna), 4 bits cada, casa par no nibble baixo:
+//          0 = vazia, 1..6 = P N B R Q K brancos, 9..14 = pretos
+//   32     bit 0 = brancas a jogar; bits 1..4 = roques K Q k q
+//   33     coluna do en passant + 1 (0 = nenhum)
+//   34..35 pontuação da busca, do ponto de vista de quem joga
+//   36..37 número do lance (ply) na partida
+//   38     resultado da partida: 2 = vitória das brancas, 1 = empate, 0 = vitória das pretas
+//   39     reservado
+public final class PositionRecord {
+    public static final int SIZE = 40;
+    public static final String FILE_EXTENSION = ".pos";
+
+    public static final int BLACK_WIN = 0;
+    public static final int DRAW = 1;
+    public static final int WHITE_WIN = 2;
+
+    private static final String PIECE_CODES = " PNBRQK";
+
+    private final byte[] data;
+
+    private PositionRecord(byte[] data) {
+        this.data = data;
+    }
+
+    // Lê o registro que começa na posição absoluta indicada, sem alterar a posição do buffer
+    public static PositionRecord read(ByteBuffer buffer, int offset) {
+        byte[] data = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            data[i] = buffer.get(offset + i);
+        }
+        return new PositionRecord(data);
+    }
+
+    // Acrescenta o registro na posição atual do buffer
+    public static void write(ByteBuffer buffer, Board board, boolean whiteToMove, Position enPassant,
+            int score, int ply, int result) {
+        for (int square = 0; square < 64; square += 2) {
+            int low = pieceCode(board.getPieceAt(new Position(square / 8, square % 8)));
+            int high = pieceCode(board.getPieceAt(new Position(square / 8, square % 8 + 1)));
+            buffer.put((byte) (low | high << 4));
+        }
+        int flags = whiteToMove ? 1 : 0;
+        if (board.hasCastlingRight(true, true)) flags |= 2;
+        if (board.hasCastlingRight(true, false)) flags |= 4;
+        if (board.hasCastlingRight(false, true)) flags |= 8;
+        if (board.hasCastlingRight(false, false)) flags |= 16;
+        buffer.put((byte) flags);
+        buffer.put((byte) (enPassant == null ? 0 : enPassant.getColumn() + 1));
+        buffer.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score)));
+        buffer.putShort((short) Math.min(ply, 0xFFFF));
+        buffer.put((byte) result);
+        buffer.put((byte) 0);
+    }
+
+    public boolean isWhiteToMove() {
+        return (data[32] & 1) != 0;
+    }
+
+    public int getEnPassantColumn() {
+        return data[33] - 1;
+    }
+
+    public int getScore() {
+        return (short) ((data[34] & 0xFF) << 8 | (data[35] & 0xFF));
+    }
+
+    public int getPly() {
+        return (data[36] & 0xFF) << 8 | (data[37] & 0xFF);
+    }
+
+    public int getResult() {
+        return data[38];
+    }
+
+    // Resultado como pontuação das brancas: 1, 0.5 ou 0
+    public float getWhiteScore() {
+        return getResult() / 2f;
+    }
+
+    // Monta um tabuleiro com as peças do registro; peças fora da casa inicial, ou sem direito de roque,
+    // ficam marcadas como já movidas
+    public Board toBoard() {
+        Board board = new Board();
+        for (int square = 0; square < 64; square++) {
+            int code = (data[square / 2] >> (square % 2 == 0 ? 0 : 4)) & 0xF;
+            if (code == 0) continue;
+            boolean white = code < 8;
+            int row = square / 8;
+            Piece piece;
+            switch (PIECE_CODES.charAt(code & 7)) {
+                case 'P': piece = new Pawn(board, white); break;
+                case 'N': piece = new Knight(board, white); break;
+                case 'B': piece = new Bishop(board, white); break;
+                case 'R': piece = new Rook(board, white); break;
+                case 'Q': piece = new Queen(board, white); break;
+                default: piece = new King(board, white);
+            }
+            if (piece instanceof Pawn) {
+                piece.setHasMoved(row != (white ? 6 : 1));
+            } else if (piece instanceof King || piece instanceof Rook) {
+                piece.setHasMoved(true);
+            }
+            board.placePiece(piece, new Position(row, square % 8));
+        }
+        restoreCastling(board, 2, true, true);
+        restoreCastling(board, 4, true, false);
+        restoreCastling(board, 8, false, true);
+        restoreCastling(board, 16, false, false);
+        return board;
+    }
+
+    private void restoreCastling(Board board, int flag, boolean white, boolean kingSide) {
+        if ((data[32] & flag) == 0) return;
+        int row = white ? 7 : 0;
+        board.getPieceAt(new Position(row, 4)).setHasMoved(false);
+        board.getPieceAt(new Position(row, kingSide ? 7 : 0)).setHasMoved(false);
+    }
+
+    private static int pieceCode(Piece piece) {
+        if (piece == null) return 0;
+        int code = PIECE_CODES.indexOf(piece.getSymbol().charAt(0));
+        return piece.isWhite() ? code : code | 8;
+    }
+}
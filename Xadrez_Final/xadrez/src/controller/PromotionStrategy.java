@@ -0,0 +1,10 @@
+package controller;
+
+// Escolha da peça da promoção quando o lance não a informa (Game.NO_PROMOTION_CHOICE).
+// O padrão é sempre dama, que nunca bloqueia; a interface gráfica troca por uma janela de escolha.
+public interface PromotionStrategy {
+    PromotionStrategy ALWAYS_QUEEN = white -> 'Q';
+
+    // Devolve 'Q', 'R', 'B' ou 'N'; qualquer outro valor vira dama
+    char choosePromotion(boolean white);
+}
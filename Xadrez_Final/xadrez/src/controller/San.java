@@ -0,0 +1,156 @@
+package controller;
+
+import model.board.Board;
+import model.board.Move;
+import model.board.Position;
+import model.pieces.King;
+import model.pieces.Pawn;
+import model.pieces.Piece;
+
+// Notação algébrica padrão (SAN), usada no PGN: "Nf3", "exd5", "O-O", "e8=Q+", "Raxd1#".
+// Os lances são sempre resolvidos contra a posição atual da partida, só com lances legais.
+public final class San {
+    private static final String PIECE_LETTERS = "NBRQK";
+
+    private San() {
+    }
+
+    // SAN do lance, legal na posição atual, sem o sufixo de xeque
+    public static String toSan(Game game, Move move) {
+        Board board = game.getBoard();
+        Piece piece = board.getPieceAt(move.getFrom());
+        Position from = move.getFrom();
+        Position to = move.getTo();
+        if (piece instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            return to.getColumn() == 6 ? "O-O" : "O-O-O";
+        }
+
+        StringBuilder san = new StringBuilder(8);
+        boolean capture = board.getPieceAt(to) != null || board.isEnPassantCapture(piece, to);
+        if (piece instanceof Pawn) {
+            if (capture) san.append((char) ('a' + from.getColumn()));
+        } else {
+            san.append(piece.getSymbol());
+            appendDisambiguation(san, game, piece, from, to);
+        }
+        if (capture) san.append('x');
+        san.append(to);
+        if (piece instanceof Pawn && (to.getRow() == 0 || to.getRow() == 7)) {
+            char promotion = move.getPromotionPiece();
+            san.append('=').append(promotion == Game.NO_PROMOTION_CHOICE ? 'Q' : promotion);
+        }
+        return san.toString();
+    }
+
+    // Coluna, fileira ou as duas, quando outra peça igual também pode ir para a mesma casa
+    private static void appendDisambiguation(StringBuilder san, Game game, Piece piece, Position from, Position to) {
+        boolean ambiguous = false, sameColumn = false, sameRow = false;
+        Board board = game.getBoard();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece other = board.getPieceAt(new Position(row, col));
+                if (other == null || other == piece || other.getClass() != piece.getClass()
+                        || other.isWhite() != piece.isWhite()) continue;
+                if (!other.canMoveTo(to) || game.moveCausesCheck(other, to)) continue;
+                ambiguous = true;
+                sameColumn |= col == from.getColumn();
+                sameRow |= row == from.getRow();
+            }
+        }
+        if (!ambiguous) return;
+        if (!sameColumn) {
+            san.append((char) ('a' + from.getColumn()));
+        } else if (!sameRow) {
+            san.append((char) ('8' - from.getRow()));
+        } else {
+            san.append(from);
+        }
+    }
+
+    // Joga o lance e devolve a SAN completa, com "+" ou "#"
+    public static String play(Game game, Move move) {
+        String san = toSan(game, move);
+        char promotion = move.getPromotionPiece() == Game.NO_PROMOTION_CHOICE ? 'Q' : move.getPromotionPiece();
+        if (!game.movePiece(move.getFrom(), move.getTo(), promotion)) {
+            throw new IllegalArgumentException("Lance ilegal: " + san);
+        }
+        return san + checkSuffix(game);
+    }
+
+    static String checkSuffix(Game game) {
+        if (!game.isInCheck(game.isWhiteTurn())) return "";
+        return game.getLegalMoves().isEmpty() ? "#" : "+";
+    }
+
+    // Procura o lance legal que a SAN descreve. Aceita "0-0", promoção sem "=" ("e8Q") e ignora os
+    // sufixos de xeque e de comentário (+ # ! ?).
+    public static Move parse(Game game, CharSequence san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+        String text = san.subSequence(0, end).toString();
+        Board board = game.getBoard();
+        boolean white = game.isWhiteTurn();
+
+        if (text.equals("O-O") || text.equals("0-0") || text.equals("O-O-O") || text.equals("0-0-0")) {
+            int row = white ? 7 : 0;
+            Position from = new Position(row, 4);
+            Position to = new Position(row, text.length() == 3 ? 6 : 2);
+            Piece king = board.getPieceAt(from);
+            if (king instanceof King && king.isWhite() == white && king.canMoveTo(to)
+                    && !game.moveCausesCheck(king, to)) {
+                return new Move(from, to, king, null);
+            }
+            throw invalidSan(san);
+        }
+
+        char promotion = Game.NO_PROMOTION_CHOICE;
+        if (end >= 2 && PIECE_LETTERS.indexOf(text.charAt(end - 1)) >= 0 && text.charAt(end - 1) != 'K') {
+            promotion = text.charAt(end - 1);
+            end -= text.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end < 2) throw invalidSan(san);
+        int toCol = text.charAt(end - 2) - 'a';
+        int toRow = '8' - text.charAt(end - 1);
+        Position to = new Position(toRow, toCol);
+        if (!to.isValid()) throw invalidSan(san);
+
+        int start = 0;
+        char symbol = 'P';
+        if (PIECE_LETTERS.indexOf(text.charAt(0)) >= 0) {
+            symbol = text.charAt(0);
+            start = 1;
+        }
+        int fromCol = -1, fromRow = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') fromCol = c - 'a';
+            else if (c >= '1' && c <= '8') fromRow = '8' - c;
+            else if (c != 'x' && c != '-') throw invalidSan(san);
+        }
+
+        Move found = null;
+        for (int row = 0; row < 8; row++) {
+            if (fromRow >= 0 && row != fromRow) continue;
+            for (int col = 0; col < 8; col++) {
+                if (fromCol >= 0 && col != fromCol) continue;
+                Piece piece = board.getPieceAt(new Position(row, col));
+                if (piece == null || piece.isWhite() != white || piece.getSymbol().charAt(0) != symbol) continue;
+                if (!piece.canMoveTo(to) || game.moveCausesCheck(piece, to)) continue;
+                if (found != null) {
+                    throw new IllegalArgumentException("Lance ambíguo: " + san);
+                }
+                found = new Move(piece.getPosition(), to, piece, board.getPieceAt(to));
+            }
+        }
+        if (found == null) throw invalidSan(san);
+        if (symbol == 'P' && (toRow == 0 || toRow == 7)) {
+            found.setPromotion(true);
+            found.setPromotionPiece(promotion == Game.NO_PROMOTION_CHOICE ? 'Q' : promotion);
+        }
+        return found;
+    }
+
+    private static IllegalArgumentException invalidSan(CharSequence san) {
+        return new IllegalArgumentException("Lance inválido: " + san);
+    }
+}
@@ -0,0 +1,188 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import model.board.Move;
+import model.board.Position;
+import model.pieces.King;
+import model.pieces.Piece;
+
+// Gera posições de treino por partidas da IA contra ela mesma, sem interface gráfica:
+//   java controller.SelfPlayGenerator <arquivo .pos> <posições> [profundidade] [threads]
+// Cada thread joga partidas independentes, com aberturas sorteadas, e entrega os registros da partida
+// encerrada a uma única thread de escrita, que os grava no fim do arquivo em blocos grandes.
+// A fila entre elas é limitada, então a memória não cresce com o tamanho do arquivo.
+public class SelfPlayGenerator {
+    private static final int RANDOM_OPENING_PLIES = 8;
+    private static final int MAX_GAME_PLIES = 300;
+    private static final int DEFAULT_DEPTH = 2;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final long PROGRESS_INTERVAL_MS = 10_000;
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    private final int depth;
+    private final long target;
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong games = new AtomicLong();
+    private final BlockingQueue<ByteBuffer> queue;
+
+    private SelfPlayGenerator(int depth, long target, int threads) {
+        this.depth = depth;
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(threads * 2);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: java controller.SelfPlayGenerator <arquivo .pos> <posições> [profundidade] [threads]");
+            System.exit(1);
+        }
+        Path output = Paths.get(args[0]);
+        long target = Long.parseLong(args[1]);
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        SelfPlayGenerator generator = new SelfPlayGenerator(depth, target, threads);
+        long start = System.currentTimeMillis();
+        ExecutorService players = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            players.execute(generator::playGames);
+        }
+        players.shutdown();
+
+        Thread writer = new Thread(() -> generator.writeRecords(output), "self-play-writer");
+        writer.start();
+        while (!players.awaitTermination(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            generator.printProgress(start);
+        }
+        generator.queue.put(END_OF_STREAM);
+        writer.join();
+        generator.printProgress(start);
+    }
+
+    private void printProgress(long start) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        long positions = generated.get();
+        System.out.printf("%d partidas, %d posições (%d posições/hora)%n", games.get(), positions,
+                positions * 3_600_000L / elapsed);
+    }
+
+    private void playGames() {
+        try {
+            while (generated.get() < target) {
+                ByteBuffer records = playGame();
+                if (records.hasRemaining()) {
+                    generated.addAndGet(records.remaining() / PositionRecord.SIZE);
+                    queue.put(records);
+                }
+                games.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.err.println("Erro na partida de treino: " + e);
+            e.printStackTrace();
+        }
+    }
+
+    // Joga uma partida e devolve os registros já com o resultado final, prontos para gravar
+    private ByteBuffer playGame() {
+        Game game = new Game();
+        ChessAI ai = new ChessAI(game);
+        ai.setVerbose(false);
+        ai.setDifficulty(ChessAI.Difficulty.EXPERT);
+        ByteBuffer records = ByteBuffer.allocate(MAX_GAME_PLIES * PositionRecord.SIZE);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int result = PositionRecord.DRAW;
+
+        for (int ply = 0; ply < MAX_GAME_PLIES; ply++) {
+            if (hasOnlyKings(game) || game.isDraw()) {
+                break;
+            }
+            List<Move> legalMoves = game.getLegalMoves();
+            if (legalMoves.isEmpty()) {
+                if (game.isInCheck(game.isWhiteTurn())) {
+                    result = game.isWhiteTurn() ? PositionRecord.BLACK_WIN : PositionRecord.WHITE_WIN;
+                }
+                break;
+            }
+
+            Move move;
+            if (ply < RANDOM_OPENING_PLIES) {
+                move = legalMoves.get(random.nextInt(legalMoves.size()));
+            } else {
+                move = ai.search(depth, 0);
+                // Posições em xeque ou com mate à vista não servem para ajustar a avaliação
+                int score = ai.getLastScore();
+                if (!ChessAI.isMateScore(score) && !game.isInCheck(game.isWhiteTurn())) {
+                    PositionRecord.write(records, game.getBoard(), game.isWhiteTurn(), game.getLastPawnDoubleMove(),
+                            score, ply, 0);
+                }
+            }
+            if (move == null || !game.movePiece(move.getFrom(), move.getTo(), 'Q')) {
+                break;
+            }
+        }
+
+        records.flip();
+        for (int offset = 0; offset < records.limit(); offset += PositionRecord.SIZE) {
+            records.put(offset + PositionRecord.SIZE - 2, (byte) result);
+        }
+        return records;
+    }
+
+    private static boolean hasOnlyKings(Game game) {
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = game.getBoard().getPieceAt(new Position(row, col));
+                if (piece != null && !(piece instanceof King)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void writeRecords(Path output) {
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            while (true) {
+                ByteBuffer records = queue.take();
+                if (records == END_OF_STREAM) {
+                    break;
+                }
+                if (records.remaining() > buffer.remaining()) {
+                    drain(channel, buffer);
+                }
+                buffer.put(records);
+            }
+            drain(channel, buffer);
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar " + output + ": " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,214 @@
+package controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import model.board.Board;
+
+// Ajuste de Texel dos pesos da avaliação clássica, sem interface gráfica:
+//   java controller.TexelTuner <posições> <pesos de saída> [pesos iniciais] [passadas]
+// Cada linha do arquivo de posições tem um FEN (ao menos colocação das peças e lado a jogar) seguido do
+// resultado da partida ("1-0", "0-1", "1/2-1/2" ou 1.0 / 0.5 / 0.0, opcionalmente entre [] ou "").
+// Arquivos .pos do SelfPlayGenerator são lidos direto como registros binários.
+// Os coeficientes de cada posição são calculados uma vez; depois cada passada só faz produtos
+// esparsos, com o erro somado em paralelo sobre todas as posições.
+public class TexelTuner {
+    private static final int DEFAULT_PASSES = 50;
+    private static final int RECORDS_PER_MAPPING = 1 << 24;
+
+    // Coeficientes não nulos de uma posição (do ponto de vista das brancas) e o resultado da partida
+    private static final class Sample {
+        final short[] indices;
+        final float[] coefficients;
+        final float result;
+
+        Sample(double[] trace, float result) {
+            int count = 0;
+            for (double coefficient : trace) {
+                if (coefficient != 0) count++;
+            }
+            indices = new short[count];
+            coefficients = new float[count];
+            int next = 0;
+            for (int i = 0; i < trace.length; i++) {
+                if (trace[i] != 0) {
+                    indices[next] = (short) i;
+                    coefficients[next++] = (float) trace[i];
+                }
+            }
+            this.result = result;
+        }
+
+        double evaluate(double[] weights) {
+            double total = 0;
+            for (int i = 0; i < indices.length; i++) {
+                total += weights[indices[i]] * coefficients[i];
+            }
+            return total;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: java controller.TexelTuner <posições> <pesos de saída> [pesos iniciais] [passadas]");
+            System.exit(1);
+        }
+        EvalWeights weights = args.length > 2 ? EvalWeights.load(Paths.get(args[2])) : EvalWeights.defaults();
+        int passes = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_PASSES;
+
+        long start = System.currentTimeMillis();
+        ClassicEvaluator evaluator = new ClassicEvaluator(weights);
+        List<Sample> samples = loadSamples(Paths.get(args[0]), evaluator);
+        System.out.printf("%d posições carregadas em %d ms%n", samples.size(), System.currentTimeMillis() - start);
+        if (samples.isEmpty()) {
+            System.exit(1);
+        }
+
+        double[] values = new double[EvalWeights.COUNT];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = weights.get(i);
+        }
+        double k = computeScalingFactor(samples, values);
+        System.out.printf("K = %.3f, erro inicial %.6f%n", k, error(samples, values, k));
+
+        double best = error(samples, values, k);
+        for (int pass = 1; pass <= passes; pass++) {
+            long passStart = System.currentTimeMillis();
+            boolean improved = false;
+            for (int i = 0; i < values.length; i++) {
+                for (int step : new int[] {1, -1}) {
+                    values[i] += step;
+                    double candidate = error(samples, values, k);
+                    if (candidate < best) {
+                        best = candidate;
+                        improved = true;
+                        break;
+                    }
+                    values[i] -= step;
+                }
+            }
+            System.out.printf("Passada %d: erro %.6f (%d ms)%n", pass, best, System.currentTimeMillis() - passStart);
+
+            for (int i = 0; i < values.length; i++) {
+                weights.set(i, (int) values[i]);
+            }
+            weights.save(Paths.get(args[1]));
+            if (!improved) break;
+        }
+        System.out.println("Pesos gravados em " + args[1]);
+    }
+
+    private static List<Sample> loadSamples(Path path, ClassicEvaluator evaluator) throws IOException {
+        if (path.getFileName().toString().endsWith(PositionRecord.FILE_EXTENSION)) {
+            return loadRecords(path, evaluator);
+        }
+        try (Stream<String> lines = Files.lines(path)) {
+            return lines.parallel()
+                    .map(line -> parseSample(line, evaluator))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // O arquivo é mapeado em blocos, e os registros de cada bloco são processados em paralelo
+    private static List<Sample> loadRecords(Path path, ClassicEvaluator evaluator) throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long count = channel.size() / PositionRecord.SIZE;
+            for (long first = 0; first < count; first += RECORDS_PER_MAPPING) {
+                int records = (int) Math.min(RECORDS_PER_MAPPING, count - first);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, first * PositionRecord.SIZE,
+                        (long) records * PositionRecord.SIZE);
+                samples.addAll(IntStream.range(0, records).parallel()
+                        .mapToObj(i -> recordSample(PositionRecord.read(buffer, i * PositionRecord.SIZE), evaluator))
+                        .collect(Collectors.toList()));
+            }
+        }
+        return samples;
+    }
+
+    private static Sample recordSample(PositionRecord record, ClassicEvaluator evaluator) {
+        return sample(record.toBoard(), record.isWhiteToMove(), record.getWhiteScore(), evaluator);
+    }
+
+    // Linhas sem posição ou resultado reconhecível são ignoradas
+    private static Sample parseSample(String line, ClassicEvaluator evaluator) {
+        String[] fields = line.trim().split("\\s+");
+        if (fields.length < 3) return null;
+        float result = parseResult(fields);
+        if (Float.isNaN(result)) return null;
+
+        Game game;
+        try {
+            game = Game.fromFen(line);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return sample(game.getBoard(), game.isWhiteTurn(), result, evaluator);
+    }
+
+    private static Sample sample(Board board, boolean whiteToMove, float result, ClassicEvaluator evaluator) {
+        double[] trace = new double[EvalWeights.COUNT];
+        evaluator.trace(board, whiteToMove, trace);
+        if (!whiteToMove) {
+            for (int i = 0; i < trace.length; i++) {
+                trace[i] = -trace[i];
+            }
+        }
+        return new Sample(trace, result);
+    }
+
+    private static float parseResult(String[] fields) {
+        switch (fields[fields.length - 1].replaceAll("[\\[\\]\";]", "")) {
+            case "1-0": case "1.0": return 1f;
+            case "0-1": case "0.0": return 0f;
+            case "1/2-1/2": case "0.5": return 0.5f;
+            default: return Float.NaN;
+        }
+    }
+
+    // K da sigmoide que melhor liga a pontuação inicial aos resultados, por busca em refinamentos sucessivos
+    private static double computeScalingFactor(List<Sample> samples, double[] weights) {
+        double best = 1.0;
+        double bestError = error(samples, weights, best);
+        for (double step = 0.5; step >= 0.001; step /= 10) {
+            boolean moved = true;
+            while (moved) {
+                moved = false;
+                for (double candidate : new double[] {best - step, best + step}) {
+                    if (candidate <= 0) continue;
+                    double candidateError = error(samples, weights, candidate);
+                    if (candidateError < bestError) {
+                        bestError = candidateError;
+                        best = candidate;
+                        moved = true;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // Erro quadrático médio entre o resultado e a probabilidade de vitória prevista pela avaliação
+    private static double error(List<Sample> samples, double[] weights, double k) {
+        double total = samples.parallelStream().mapToDouble(sample -> {
+            double expected = 1.0 / (1.0 + Math.pow(10, -k * sample.evaluate(weights) / 400.0));
+            double difference = sample.result - expected;
+            return difference * difference;
+        }).sum();
+        return total / samples.size();
+    }
+}
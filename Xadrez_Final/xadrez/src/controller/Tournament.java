@@ -0,0 +1,278 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import model.board.Move;
+import model.board.Position;
+import model.pieces.King;
+import model.pieces.Piece;
+
+// Partidas entre duas configurações da IA, sem interface gráfica:
+//   java controller.Tournament <motor A> <motor B> [máximo de partidas] [threads] [aberturas]
+// Cada motor é DIFICULDADE[:depth=n][:weights=arquivo][:nnue=arquivo], por exemplo EXPERT:depth=3:weights=w.txt.
+// As aberturas (arquivo .pgn, ou um FEN por linha) são jogadas duas vezes, com as cores trocadas;
+// sem arquivo, usa uma lista fixa de aberturas equilibradas. O placar é do ponto de vista de A.
+// O teste sequencial (SPRT) compara as hipóteses "A é ELO0 mais forte" e "A é ELO1 mais forte" e encerra
+// o torneio assim que uma delas for aceita, com erros ALPHA e BETA.
+public class Tournament {
+    private static final int MAX_GAME_PLIES = 400;
+    private static final double ELO0 = 0;
+    private static final double ELO1 = 10;
+    private static final double ALPHA = 0.05;
+    private static final double BETA = 0.05;
+    private static final int MIN_SPRT_GAMES = 10;
+    private static final double MIN_VARIANCE = 0.01;
+    private static final String[] DEFAULT_OPENINGS = {
+        "e4 e5 Nf3 Nc6 Bb5 a6", "e4 e5 Nf3 Nc6 Bc4 Bc5", "e4 c5 Nf3 d6 d4 cxd4", "e4 c5 Nc3 Nc6 g3 g6",
+        "e4 e6 d4 d5 Nc3 Nf6", "e4 c6 d4 d5 e5 Bf5", "e4 d5 exd5 Qxd5 Nc3 Qa5", "e4 Nf6 e5 Nd5 d4 d6",
+        "d4 d5 c4 e6 Nc3 Nf6", "d4 d5 c4 c6 Nf3 Nf6", "d4 Nf6 c4 g6 Nc3 Bg7", "d4 Nf6 c4 e6 Nc3 Bb4",
+        "d4 Nf6 c4 e6 Nf3 b6", "d4 f5 g3 Nf6 Bg2 g6", "c4 e5 Nc3 Nf6 Nf3 Nc6", "c4 c5 Nf3 Nf6 g3 d5",
+        "Nf3 d5 g3 Nf6 Bg2 c6", "Nf3 Nf6 c4 b6 g3 Bb7", "e4 e5 Nf3 Nf6 Nxe5 d6", "e4 e5 f4 exf4 Nf3 g5",
+        "d4 d5 Bf4 Nf6 e3 c5", "e4 g6 d4 Bg7 Nc3 d6", "e4 c5 Nf3 e6 d4 cxd4", "d4 Nf6 Nf3 e6 Bg5 c5",
+    };
+
+    private final EngineConfig engineA;
+    private final EngineConfig engineB;
+    private int wins, draws, losses;
+
+    // Uma configuração da IA: dificuldade, profundidade e avaliação
+    static final class EngineConfig {
+        final String name;
+        final ChessAI.Difficulty difficulty;
+        final int depth;
+        final EvalWeights weights;
+        final NnueNetwork network;
+
+        EngineConfig(String spec) throws IOException {
+            String[] parts = spec.split(":");
+            name = spec;
+            difficulty = ChessAI.Difficulty.valueOf(parts[0].toUpperCase());
+            int depth = 0;
+            EvalWeights weights = EvalWeights.defaults();
+            NnueNetwork network = null;
+            for (int i = 1; i < parts.length; i++) {
+                int equals = parts[i].indexOf('=');
+                String key = equals < 0 ? parts[i] : parts[i].substring(0, equals);
+                String value = equals < 0 ? "" : parts[i].substring(equals + 1);
+                switch (key) {
+                    case "depth": depth = Integer.parseInt(value); break;
+                    case "weights": weights = EvalWeights.load(Paths.get(value)); break;
+                    case "nnue": network = NnueNetwork.load(Paths.get(value)); break;
+                    default: throw new IllegalArgumentException("Opção de motor desconhecida: " + parts[i]);
+                }
+            }
+            this.depth = depth;
+            this.weights = weights;
+            this.network = network;
+        }
+
+        // Uma IA nova por partida: os avaliadores guardam estado da busca
+        ChessAI create(Game game) {
+            ChessAI ai = new ChessAI(game);
+            ai.setVerbose(false);
+            ai.setDifficulty(difficulty);
+            ai.setEvaluator(network != null ? new NnueEvaluator(network) : new ClassicEvaluator(weights));
+            return ai;
+        }
+
+        int searchDepth() {
+            if (depth > 0) return depth;
+            switch (difficulty) {
+                case EASY: return 1;
+                case MEDIUM: return 2;
+                case HARD: return 3;
+                default: return 4;
+            }
+        }
+    }
+
+    private Tournament(EngineConfig engineA, EngineConfig engineB) {
+        this.engineA = engineA;
+        this.engineB = engineB;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: java controller.Tournament <motor A> <motor B> [máximo de partidas] [threads] [aberturas]");
+            System.err.println("  motor: DIFICULDADE[:depth=n][:weights=arquivo][:nnue=arquivo]");
+            System.exit(1);
+        }
+        EngineConfig engineA = new EngineConfig(args[0]);
+        EngineConfig engineB = new EngineConfig(args[1]);
+        int maxGames = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        List<String> openings = args.length > 4 ? loadOpenings(Paths.get(args[4])) : defaultOpenings();
+
+        new Tournament(engineA, engineB).run(openings, maxGames, threads);
+    }
+
+    static List<String> defaultOpenings() {
+        return List.of(DEFAULT_OPENINGS);
+    }
+
+    // Aberturas de um PGN (os lances de cada partida) ou de um arquivo com um FEN por linha
+    static List<String> loadOpenings(Path path) throws IOException {
+        List<String> openings = new ArrayList<>();
+        if (path.toString().toLowerCase().endsWith(".pgn")) {
+            try (PgnReader reader = PgnReader.open(path)) {
+                reader.forEachRemaining(game -> {
+                    String fen = game.getTag("FEN");
+                    openings.add((fen != null ? "[" + fen + "] " : "") + String.join(" ", game.getMoves()));
+                });
+            }
+        } else {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!line.isBlank() && !line.startsWith("#")) openings.add("[" + line.trim() + "]");
+            }
+        }
+        if (openings.isEmpty()) {
+            throw new IOException("Nenhuma abertura em " + path);
+        }
+        return openings;
+    }
+
+    // Posição da abertura: "[FEN] lances" ou só os lances em SAN a partir da posição inicial
+    static Game openingPosition(String opening) {
+        Game game;
+        String moves = opening;
+        if (opening.startsWith("[")) {
+            int end = opening.indexOf(']');
+            game = Game.fromFen(opening.substring(1, end));
+            moves = opening.substring(end + 1);
+        } else {
+            game = new Game();
+        }
+        for (String san : moves.trim().split("\\s+")) {
+            if (san.isEmpty()) continue;
+            Move move = San.parse(game, san);
+            game.movePiece(move.getFrom(), move.getTo(), move.isPromotion() ? move.getPromotionPiece() : 'Q');
+        }
+        return game;
+    }
+
+    private void run(List<String> openings, int maxGames, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<Integer> results = new ExecutorCompletionService<>(pool);
+        long start = System.currentTimeMillis();
+        int submitted = 0;
+        for (; submitted < maxGames; submitted++) {
+            String opening = openings.get((submitted / 2) % openings.size());
+            boolean engineAWhite = submitted % 2 == 0;
+            results.submit(() -> playGame(opening, engineAWhite));
+        }
+        pool.shutdown();
+
+        double lower = Math.log(BETA / (1 - ALPHA));
+        double upper = Math.log((1 - BETA) / ALPHA);
+        String verdict = "limite de partidas atingido";
+        for (int played = 0; played < submitted; played++) {
+            Future<Integer> game = results.take();
+            int score = game.get();
+            if (score > 0) wins++;
+            else if (score < 0) losses++;
+            else draws++;
+
+            double llr = logLikelihoodRatio();
+            if ((played + 1) % 10 == 0 || llr <= lower || llr >= upper) {
+                printStatus(llr, lower, upper, start);
+            }
+            if (llr >= upper) {
+                verdict = "H1 aceita: A é pelo menos " + ELO1 + " Elo mais forte";
+                break;
+            }
+            if (llr <= lower) {
+                verdict = "H0 aceita: A não é " + ELO1 + " Elo mais forte";
+                break;
+            }
+        }
+        pool.shutdownNow();
+        printStatus(logLikelihoodRatio(), lower, upper, start);
+        System.out.println(engineA.name + " vs " + engineB.name + ": " + verdict);
+    }
+
+    // Joga uma partida a partir da abertura e devolve 1, 0 ou -1 do ponto de vista de A
+    private int playGame(String opening, boolean engineAWhite) {
+        Game game = openingPosition(opening);
+        ChessAI white = (engineAWhite ? engineA : engineB).create(game);
+        ChessAI black = (engineAWhite ? engineB : engineA).create(game);
+        int whiteDepth = (engineAWhite ? engineA : engineB).searchDepth();
+        int blackDepth = (engineAWhite ? engineB : engineA).searchDepth();
+
+        int whiteScore = 0;
+        for (int ply = 0; ply < MAX_GAME_PLIES && !Thread.currentThread().isInterrupted(); ply++) {
+            if (game.isDraw() || hasOnlyKings(game)) {
+                break;
+            }
+            if (game.getLegalMoves().isEmpty()) {
+                if (game.isInCheck(game.isWhiteTurn())) {
+                    whiteScore = game.isWhiteTurn() ? -1 : 1;
+                }
+                break;
+            }
+            boolean whiteToMove = game.isWhiteTurn();
+            Move move = (whiteToMove ? white : black).search(whiteToMove ? whiteDepth : blackDepth, 0);
+            if (move == null || !game.movePiece(move.getFrom(), move.getTo(), 'Q')) {
+                whiteScore = whiteToMove ? -1 : 1;
+                break;
+            }
+        }
+        return engineAWhite ? whiteScore : -whiteScore;
+    }
+
+    static boolean hasOnlyKings(Game game) {
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = game.getBoard().getPieceAt(new Position(row, col));
+                if (piece != null && !(piece instanceof King)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Razão de verossimilhança do SPRT pela aproximação normal do placar (média e variância por partida)
+    private double logLikelihoodRatio() {
+        int games = wins + draws + losses;
+        if (games < MIN_SPRT_GAMES) return 0;
+        double score = (wins + 0.5 * draws) / games;
+        double variance = (wins * Math.pow(1 - score, 2) + draws * Math.pow(0.5 - score, 2)
+                + losses * Math.pow(score, 2)) / games;
+        // Placar unânime tem variância zero; o piso evita a divisão por zero sem decidir cedo demais
+        variance = Math.max(variance, MIN_VARIANCE);
+        double score0 = expectedScore(ELO0);
+        double score1 = expectedScore(ELO1);
+        return games * (score1 - score0) * (2 * score - score0 - score1) / (2 * variance);
+    }
+
+    private static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    private static double elo(double score) {
+        score = Math.max(1e-6, Math.min(1 - 1e-6, score));
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    // Elo com intervalo de 95% (desvio padrão da média do placar)
+    private void printStatus(double llr, double lower, double upper, long start) {
+        int games = wins + draws + losses;
+        double score = (wins + 0.5 * draws) / games;
+        double variance = (wins * Math.pow(1 - score, 2) + draws * Math.pow(0.5 - score, 2)
+                + losses * Math.pow(score, 2)) / games;
+        double margin = 1.96 * Math.sqrt(variance / games);
+        System.out.printf("%d partidas: +%d =%d -%d  Elo %.1f [%.1f, %.1f]  LLR %.2f (%.2f, %.2f)  %d s%n",
+                games, wins, draws, losses, elo(score), elo(score - margin), elo(score + margin),
+                llr, lower, upper, (System.currentTimeMillis() - start) / 1000);
+    }
+}
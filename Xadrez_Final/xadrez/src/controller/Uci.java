@@ -0,0 +1,266 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import model.board.Move;
+import model.board.Position;
+import model.pieces.Pawn;
+
+// Modo UCI, sem interface gráfica: java controller.Uci
+// Os comandos chegam pela entrada padrão e as respostas saem pela saída padrão; as mensagens de
+// depuração da IA vão para a saída de erro. A busca roda numa thread própria, então "stop" e
+// "ponderhit" são atendidos na hora.
+public class Uci {
+    private static final String NAME = "Xadrez Final";
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final int MAX_DEPTH = 64;
+    private static final long MOVE_OVERHEAD_MS = 50;
+
+    private final PrintStream out;
+    private final Object outputLock = new Object();
+    private Game game = new Game();
+    private ChessAI ai;
+    private Thread searchThread;
+    private volatile boolean waitForStop; // go infinite / go ponder: bestmove só depois de stop ou ponderhit
+    private long ponderTimeLimit;
+    private long searchStart;
+
+    private Uci(PrintStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        PrintStream out = new PrintStream(System.out, true, StandardCharsets.UTF_8);
+        System.setOut(System.err);
+        new Uci(out).run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+    }
+
+    private void run(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] tokens = line.trim().split("\\s+");
+            try {
+                switch (tokens[0]) {
+                    case "uci":
+                        send("id name " + NAME);
+                        send("id author Xadrez_Final");
+                        send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max 1024");
+                        send("option name Threads type spin default 1 min 1 max 1");
+                        send("option name Ponder type check default false");
+                        send("uciok");
+                        break;
+                    case "isready":
+                        send("readyok");
+                        break;
+                    case "setoption":
+                        setOption(tokens);
+                        break;
+                    case "ucinewgame":
+                        stopSearch();
+                        game = new Game();
+                        break;
+                    case "position":
+                        stopSearch();
+                        game = position(tokens);
+                        break;
+                    case "go":
+                        stopSearch();
+                        go(tokens);
+                        break;
+                    case "stop":
+                        stopSearch();
+                        break;
+                    case "ponderhit":
+                        ponderHit();
+                        break;
+                    case "quit":
+                        stopSearch();
+                        return;
+                    default:
+                        // Comandos desconhecidos são ignorados, como pede o protocolo
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Erro no comando \"" + line + "\": " + e);
+            }
+        }
+        stopSearch();
+    }
+
+    private void send(String line) {
+        synchronized (outputLock) {
+            out.println(line);
+        }
+    }
+
+    // setoption name <nome> value <valor>. A busca não tem tabela de transposição nem busca paralela:
+    // Hash e Threads são validados e aceitos para compatibilidade com as interfaces, sem efeito na busca.
+    private void setOption(String[] tokens) {
+        String name = null, value = null;
+        for (int i = 1; i < tokens.length - 1; i++) {
+            if (tokens[i].equals("name")) name = tokens[i + 1];
+            if (tokens[i].equals("value")) value = tokens[i + 1];
+        }
+        if (name == null || value == null) return;
+        if (name.equalsIgnoreCase("Hash") || name.equalsIgnoreCase("Threads")) {
+            if (Integer.parseInt(value) < 1) {
+                throw new IllegalArgumentException("Valor inválido para " + name + ": " + value);
+            }
+        }
+    }
+
+    // position startpos | fen <FEN de 6 campos> [moves <lances>]
+    private static Game position(String[] tokens) {
+        int index = 1;
+        Game game;
+        if (index < tokens.length && tokens[index].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (index++; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                fen.append(tokens[index]).append(' ');
+            }
+            game = Game.fromFen(fen);
+        } else {
+            game = new Game();
+            index++;
+        }
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            for (index++; index < tokens.length; index++) {
+                if (!playUciMove(game, tokens[index])) {
+                    throw new IllegalArgumentException("Lance ilegal: " + tokens[index]);
+                }
+            }
+        }
+        return game;
+    }
+
+    // Lance em notação de coordenadas: e2e4, e7e8q
+    static boolean playUciMove(Game game, String move) {
+        if (move.length() < 4) return false;
+        Position from = new Position('8' - move.charAt(1), move.charAt(0) - 'a');
+        Position to = new Position('8' - move.charAt(3), move.charAt(2) - 'a');
+        char promotion = move.length() > 4 ? Character.toUpperCase(move.charAt(4)) : 'Q';
+        return from.isValid() && to.isValid() && game.movePiece(from, to, promotion);
+    }
+
+    static String toUci(Move move) {
+        String text = move.getFrom().toString() + move.getTo();
+        boolean promotion = move.getPiece() instanceof Pawn
+                && (move.getTo().getRow() == 0 || move.getTo().getRow() == 7);
+        if (promotion) {
+            char piece = move.getPromotionPiece() == Game.NO_PROMOTION_CHOICE ? 'Q' : move.getPromotionPiece();
+            text += Character.toLowerCase(piece);
+        }
+        return text;
+    }
+
+    private void go(String[] tokens) {
+        int depth = MAX_DEPTH;
+        long moveTime = 0, whiteTime = 0, blackTime = 0, whiteIncrement = 0, blackIncrement = 0;
+        int movesToGo = 0;
+        boolean infinite = false, ponder = false;
+        for (int i = 1; i < tokens.length; i++) {
+            boolean hasValue = i + 1 < tokens.length;
+            switch (tokens[i]) {
+                case "depth": if (hasValue) depth = Integer.parseInt(tokens[++i]); break;
+                case "movetime": if (hasValue) moveTime = Long.parseLong(tokens[++i]); break;
+                case "wtime": if (hasValue) whiteTime = Long.parseLong(tokens[++i]); break;
+                case "btime": if (hasValue) blackTime = Long.parseLong(tokens[++i]); break;
+                case "winc": if (hasValue) whiteIncrement = Long.parseLong(tokens[++i]); break;
+                case "binc": if (hasValue) blackIncrement = Long.parseLong(tokens[++i]); break;
+                case "movestogo": if (hasValue) movesToGo = Integer.parseInt(tokens[++i]); break;
+                case "infinite": infinite = true; break;
+                case "ponder": ponder = true; break;
+                default:
+            }
+        }
+
+        long timeLimit = moveTime;
+        long remaining = game.isWhiteTurn() ? whiteTime : blackTime;
+        if (timeLimit == 0 && remaining > 0) {
+            // Uma fração do relógio mais a maior parte do incremento, sem passar do tempo restante
+            long increment = game.isWhiteTurn() ? whiteIncrement : blackIncrement;
+            long share = remaining / (movesToGo > 0 ? movesToGo + 1 : 30) + increment * 3 / 4;
+            timeLimit = Math.max(1, Math.min(share, remaining - MOVE_OVERHEAD_MS));
+        }
+        waitForStop = infinite || ponder;
+        ponderTimeLimit = ponder ? timeLimit : 0;
+
+        Game searchGame = game;
+        ChessAI searchAI = new ChessAI(searchGame);
+        searchAI.setDifficulty(ChessAI.Difficulty.EXPERT);
+        long start = System.currentTimeMillis();
+        searchStart = start;
+        searchAI.setSearchListener((iterationDepth, score, nodes, pv) -> sendInfo(iterationDepth, score, nodes, pv, start));
+        int searchDepth = depth;
+        long searchTime = ponder || infinite ? 0 : timeLimit;
+        ai = searchAI;
+        searchThread = new Thread(() -> {
+            Move best = searchAI.search(searchDepth, searchTime);
+            synchronized (this) {
+                // Em infinite/ponder o protocolo só aceita bestmove depois de stop ou ponderhit
+                while (waitForStop) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+            }
+            send("bestmove " + (best != null ? toUci(best) : "0000"));
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    private void sendInfo(int depth, int score, long nodes, List<Move> pv, long start) {
+        long time = Math.max(1, System.currentTimeMillis() - start);
+        StringBuilder info = new StringBuilder("info depth ").append(depth);
+        if (ChessAI.isMateScore(score)) {
+            int plies = ChessAI.mateDistance(score);
+            info.append(" score mate ").append(score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2);
+        } else {
+            info.append(" score cp ").append(score);
+        }
+        info.append(" nodes ").append(nodes).append(" nps ").append(nodes * 1000 / time).append(" time ").append(time);
+        if (!pv.isEmpty()) {
+            info.append(" pv");
+            for (Move move : pv) {
+                info.append(' ').append(toUci(move));
+            }
+        }
+        send(info.toString());
+    }
+
+    // O lance previsto foi jogado: a busca em andamento continua, agora com o tempo normal
+    private void ponderHit() {
+        if (ai == null) return;
+        if (ponderTimeLimit > 0) {
+            ai.setTimeLimit(System.currentTimeMillis() - searchStart + ponderTimeLimit);
+        }
+        synchronized (this) {
+            waitForStop = false;
+            notifyAll();
+        }
+        if (ponderTimeLimit == 0) {
+            ai.stop();
+        }
+    }
+
+    // Encerra a busca em andamento e espera o bestmove sair
+    private void stopSearch() {
+        if (searchThread == null) return;
+        ai.stop();
+        synchronized (this) {
+            waitForStop = false;
+            notifyAll();
+        }
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+}
@@ -0,0 +1,199 @@
+package controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.board.Move;
+
+// Executa lotes de um Coordinator, sem interface gráfica:
+//   java controller.Worker [host] [porta] [threads]
+// Cada thread abre a sua própria conexão e pede um lote por vez, então vários workers (no mesmo
+// computador ou em outros) dividem o trabalho sem combinar nada entre si. Se a conexão cai, a thread
+// tenta reconectar; o coordenador devolve o lote perdido para a fila.
+public class Worker {
+    private static final String DEFAULT_HOST = "localhost";
+    private static final int DEFAULT_PORT = 9099;
+    private static final int MAX_GAME_PLIES = 300;
+    private static final int CONNECT_ATTEMPTS = 10;
+    private static final long RECONNECT_DELAY_MS = 1000;
+
+    private final String host;
+    private final int port;
+    private final AtomicInteger completed = new AtomicInteger();
+
+    private Worker(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : DEFAULT_HOST;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Worker worker = new Worker(host, port);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(worker::run, "worker-" + i);
+            workers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        System.out.println(worker.completed.get() + " lotes executados");
+    }
+
+    // Conecta e executa lotes até o coordenador responder DONE ou deixar de aceitar conexões
+    private void run() {
+        int failures = 0;
+        boolean connected = false;
+        while (failures < CONNECT_ATTEMPTS) {
+            try (Socket socket = new Socket(host, port)) {
+                socket.setTcpNoDelay(true);
+                failures = 0;
+                connected = true;
+                if (work(socket)) {
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                if (e instanceof RuntimeException) {
+                    System.err.println(Thread.currentThread().getName() + ": erro no lote: " + e);
+                }
+                failures++;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+        // Depois de já ter conectado, a recusa quer dizer em geral que o coordenador terminou
+        if (!connected) {
+            System.err.println(Thread.currentThread().getName() + ": coordenador inacessível em " + host + ":" + port);
+        }
+    }
+
+    // Devolve true quando não há mais trabalho
+    private boolean work(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        out.writeInt(Coordinator.MAGIC);
+        out.writeInt(Coordinator.VERSION);
+        while (true) {
+            out.writeByte(Coordinator.NEXT);
+            out.flush();
+            byte reply = in.readByte();
+            if (reply == Coordinator.DONE) {
+                return true;
+            }
+            if (reply == Coordinator.WAIT) {
+                try {
+                    Thread.sleep(in.readInt());
+                } catch (InterruptedException e) {
+                    return true;
+                }
+                continue;
+            }
+            if (reply != Coordinator.BATCH) {
+                throw new IOException("Resposta desconhecida do coordenador: " + reply);
+            }
+            int id = in.readInt();
+            byte kind = in.readByte();
+            int depth = in.readInt();
+            int count = in.readInt();
+            List<String> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(in.readUTF());
+            }
+
+            out.writeByte(Coordinator.RESULT);
+            out.writeInt(id);
+            out.writeInt(count);
+            for (String item : items) {
+                out.writeUTF(runItem(kind, item, depth));
+            }
+            out.flush();
+            completed.incrementAndGet();
+        }
+    }
+
+    // Um item inválido (FEN ou abertura malformada) não derruba o lote: o resultado dele vai vazio, o
+    // coordenador registra o item, e os demais seguem
+    private static String runItem(byte kind, String item, int depth) throws IOException {
+        try {
+            return kind == Coordinator.PLAY ? playOut(item, depth) : analyse(item, depth);
+        } catch (RuntimeException e) {
+            System.err.println(Thread.currentThread().getName() + ": item ignorado: " + e.getMessage());
+            return "";
+        }
+    }
+
+    // Joga a abertura até o fim, a IA contra ela mesma, e devolve a partida em PGN
+    static String playOut(String opening, int depth) throws IOException {
+        Game game = Tournament.openingPosition(opening);
+        ChessAI ai = new ChessAI(game);
+        ai.setVerbose(false);
+        ai.setDifficulty(ChessAI.Difficulty.EXPERT);
+        String result = PgnGame.UNKNOWN_RESULT;
+        for (int ply = 0; ply < MAX_GAME_PLIES; ply++) {
+            if (game.isDraw() || Tournament.hasOnlyKings(game)) {
+                result = "1/2-1/2";
+                break;
+            }
+            if (game.getLegalMoves().isEmpty()) {
+                break; // mate ou afogamento: o PgnWriter deduz o resultado
+            }
+            Move move = ai.search(depth, 0);
+            if (move == null || !game.movePiece(move.getFrom(), move.getTo(), 'Q')) {
+                break;
+            }
+        }
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "Partida de treino");
+        tags.put("White", "Xadrez Final");
+        tags.put("Black", "Xadrez Final");
+        tags.put("Result", result);
+        tags.put("Opening", opening);
+        ByteArrayOutputStream pgn = new ByteArrayOutputStream();
+        try (PgnWriter writer = new PgnWriter(Channels.newChannel(pgn))) {
+            writer.write(game, tags);
+        }
+        return pgn.toString(StandardCharsets.UTF_8).strip();
+    }
+
+    // Analisa a posição e devolve uma linha EPD: posição, melhor lance (bm), avaliação (ce),
+    // mate em n lances (dm) e profundidade (acd)
+    static String analyse(String fen, int depth) {
+        Game game = Game.fromFen(fen);
+        String[] fields = game.toFen().split(" ");
+        StringBuilder epd = new StringBuilder(String.join(" ", fields[0], fields[1], fields[2], fields[3]));
+        ChessAI ai = new ChessAI(game);
+        ai.setVerbose(false);
+        ai.setDifficulty(ChessAI.Difficulty.EXPERT);
+        Move best = ai.search(depth, 0);
+        int score = best != null ? ai.getLastScore() : 0;
+        if (best != null) {
+            epd.append(" bm ").append(San.toSan(game, best)).append(';');
+        }
+        epd.append(" ce ").append(score).append(';');
+        if (ChessAI.isMateScore(score)) {
+            int moves = (ChessAI.mateDistance(score) + 1) / 2;
+            epd.append(" dm ").append(score > 0 ? moves : -moves).append(';');
+        }
+        epd.append(" acd ").append(depth).append(';');
+        return epd.toString();
+    }
+}
@@ -77,6 +77,75 @@ public class Board {
         }
         return false;
     }
+
+    public boolean isKingInCheck(boolean whiteKing) {
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = pieces[row][col];
+                if (piece instanceof King && piece.isWhite() == whiteKing) {
+                    return isUnderAttack(new Position(row, col), !whiteKing);
+                }
+            }
+        }
+        return false;
+    }
+
+    // Faz o movimento no próprio tabuleiro, verifica se o próprio rei fica fora de xeque e desfaz.
+    // Evita copiar o tabuleiro a cada lance testado; por isso o tabuleiro não pode ser lido por outra
+    // thread durante a verificação.
+    public boolean isLegalMove(Piece piece, Position destination) {
+        Position from = piece.getPosition();
+        if (from == null || getPieceAt(from) != piece) {
+            return false;
+        }
+        // Roque: o rei não pode estar em xeque nem passar por casa atacada
+        if (piece instanceof King && Math.abs(destination.getColumn() - from.getColumn()) == 2) {
+            Position passed = new Position(destination.getRow(), (destination.getColumn() + from.getColumn()) / 2);
+            if (isUnderAttack(from, !piece.isWhite()) || isUnderAttack(passed, !piece.isWhite())) {
+                return false;
+            }
+        }
+        Position capturedAt = isEnPassantCapture(piece, destination)
+                ? new Position(from.getRow(), destination.getColumn()) : destination;
+        Piece captured = getPieceAt(capturedAt);
+
+        removePiece(capturedAt);
+        removePiece(from);
+        placePiece(piece, destination);
+        boolean legal = !isKingInCheck(piece.isWhite());
+
+        removePiece(destination);
+        placePiece(piece, from);
+        if (captured != null) {
+            placePiece(captured, capturedAt);
+        }
+        return legal;
+    }
+
+    // Peão que avançou duas casas no último lance, ou null; é o único que pode ser capturado en passant
+    public Position getLastPawnDoubleMove() {
+        return lastPawnDoubleMove;
+    }
+
+    public void setLastPawnDoubleMove(Position position) {
+        lastPawnDoubleMove = position;
+    }
+
+    // Captura en passant: peão andando na diagonal para uma casa vazia
+    public boolean isEnPassantCapture(Piece piece, Position destination) {
+        return piece instanceof Pawn && destination.getColumn() != piece.getPosition().getColumn()
+                && isPositionEmpty(destination);
+    }
+
+    // Direito de roque: rei e torre ainda na casa inicial e sem terem se movido
+    public boolean hasCastlingRight(boolean white, boolean kingSide) {
+        int row = white ? 7 : 0;
+        Piece king = pieces[row][4];
+        Piece rook = pieces[row][kingSide ? 7 : 0];
+        return king instanceof King && king.isWhite() == white && !king.getHasMoved()
+                && rook instanceof Rook && rook.isWhite() == white && !rook.getHasMoved();
+    }
+
     public boolean canPieceAttackPosition(Piece piece, Position targetPosition) {
         if (piece == null || targetPosition == null || !targetPosition.isValid()) {
             return false;
@@ -204,6 +273,76 @@ public class Board {
         piece.setHasMoved(true);
     }
 
+    // Lê o campo de colocação das peças de um FEN a partir do índice indicado, sem criar texto
+    // intermediário, e devolve o índice logo depois dele. Peões fora da fileira inicial e reis e torres
+    // fora da casa inicial ficam marcados como já movidos.
+    public int readFenPlacement(CharSequence fen, int index) {
+        clear();
+        int row = 0;
+        int col = 0;
+        for (; index < fen.length(); index++) {
+            char symbol = fen.charAt(index);
+            if (symbol == ' ') {
+                break;
+            } else if (symbol == '/') {
+                if (col != 8 || ++row > 7) throw invalidFen(fen, index);
+                col = 0;
+            } else if (symbol >= '1' && symbol <= '8') {
+                col += symbol - '0';
+                if (col > 8) throw invalidFen(fen, index);
+            } else {
+                if (col > 7) throw invalidFen(fen, index);
+                boolean white = symbol < 'a';
+                Piece piece;
+                switch (white ? symbol : (char) (symbol - 32)) {
+                    case 'P': piece = new Pawn(this, white); break;
+                    case 'N': piece = new Knight(this, white); break;
+                    case 'B': piece = new Bishop(this, white); break;
+                    case 'R': piece = new Rook(this, white); break;
+                    case 'Q': piece = new Queen(this, white); break;
+                    case 'K': piece = new King(this, white); break;
+                    default: throw invalidFen(fen, index);
+                }
+                int homeRow = white ? 7 : 0;
+                if (piece instanceof Pawn) {
+                    piece.setHasMoved(row != (white ? 6 : 1));
+                } else if (piece instanceof King) {
+                    piece.setHasMoved(row != homeRow || col != 4);
+                } else if (piece instanceof Rook) {
+                    piece.setHasMoved(row != homeRow || (col != 0 && col != 7));
+                }
+                placePiece(piece, new Position(row, col++));
+            }
+        }
+        if (row != 7 || col != 8) throw invalidFen(fen, index);
+        return index;
+    }
+
+    public void appendFenPlacement(StringBuilder out) {
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                Piece piece = pieces[row][col];
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char symbol = piece.getSymbol().charAt(0);
+                out.append(piece.isWhite() ? symbol : Character.toLowerCase(symbol));
+            }
+            if (empty > 0) out.append((char) ('0' + empty));
+            if (row < 7) out.append('/');
+        }
+    }
+
+    private static IllegalArgumentException invalidFen(CharSequence fen, int index) {
+        return new IllegalArgumentException("FEN inválido na posição " + index + ": " + fen);
+    }
+
     public Board clone() {
         Board clonedBoard = new Board();
         clonedBoard.isWhiteTurn = this.isWhiteTurn;
@@ -10,6 +10,8 @@ public class Move implements Cloneable {
     private boolean isPromotion;
     private boolean isCastling;
     private boolean isEnPassant;
+    private char promotionPiece; // 'Q', 'R', 'B' ou 'N' quando isPromotion
+    private boolean isFirstMove; // a peça ainda não tinha se movido (para desfazer o direito de roque)
 
     public Move(Position from, Position to, Piece piece, Piece capturedPiece) {
         this.from = from;
@@ -42,6 +44,14 @@ public class Move implements Cloneable {
         isPromotion = promotion;
     }
 
+    public char getPromotionPiece() {
+        return promotionPiece;
+    }
+
+    public void setPromotionPiece(char promotionPiece) {
+        this.promotionPiece = promotionPiece;
+    }
+
     public boolean isCastling() {
         return isCastling;
     }
@@ -58,6 +68,14 @@ public class Move implements Cloneable {
         isEnPassant = enPassant;
     }
 
+    public boolean isFirstMove() {
+        return isFirstMove;
+    }
+
+    public void setFirstMove(boolean firstMove) {
+        isFirstMove = firstMove;
+    }
+
     @Override
     public String toString() {
         return piece.getSymbol() + from.toString() + "-" + to.toString();
@@ -70,8 +88,10 @@ public class Move implements Cloneable {
         Move cloned = new Move(clonedFrom, clonedTo, piece, capturedPiece);
         
         cloned.setPromotion(isPromotion);
+        cloned.setPromotionPiece(promotionPiece);
         cloned.setCastling(isCastling);
         cloned.setEnPassant(isEnPassant);
+        cloned.setFirstMove(isFirstMove);
         return cloned;
     }
 
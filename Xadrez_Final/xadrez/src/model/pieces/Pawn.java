@@ -37,6 +37,15 @@ public List<Position> getPossibleMoves() {
         Piece at = board.getPieceAt(capR);
         if (at != null && at.isWhite()!=isWhite) moves.add(capR);
     }
+
+    // en passant: o peão adversário acabou de avançar duas casas e parou ao lado deste
+    Position enPassant = board.getLastPawnDoubleMove();
+    if (enPassant != null && enPassant.getRow() == position.getRow()
+            && Math.abs(enPassant.getColumn() - position.getColumn()) == 1) {
+        Piece at = board.getPieceAt(enPassant);
+        Position target = new Position(position.getRow()+dir, enPassant.getColumn());
+        if (at instanceof Pawn && at.isWhite()!=isWhite && board.isPositionEmpty(target)) moves.add(target);
+    }
     return moves;
 }
 
@@ -0,0 +1,161 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import javax.swing.JComponent;
+import model.board.Board;
+import model.board.Position;
+
+// Tabuleiro desenhado num único componente. As casas ficam numa imagem guardada (o back buffer); a cada
+// atualização só as casas cuja peça ou destaque mudou são redesenhadas nela, e só a área delas é
+// repintada na tela. A imagem inteira só é refeita quando o tamanho, as cores ou as peças mudam.
+// Em telas HiDPI a imagem tem a resolução real da tela, e as peças são desenhadas nesse tamanho.
+public class BoardComponent extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    public static final int NONE = 0;
+    public static final int SELECTED = 1;
+    public static final int TARGET = 2;
+    public static final int CAPTURE = 3;
+
+    private static final int PREFERRED_SQUARE_SIZE = 70;
+    private static final int HIGHLIGHT_WIDTH = 3;
+    private static final double PIECE_SCALE = 5.0 / 7.0; // peças de 50 pixels em casas de 70
+    private static final Color[] HIGHLIGHT_COLORS = { null, Color.BLUE, Color.GREEN, Color.RED };
+
+    // Recebe o clique numa casa (linha 0 = oitava fileira)
+    public interface SquareListener {
+        void squareClicked(int row, int col);
+    }
+
+    private final int[] pieces = new int[64];
+    private final int[] highlights = new int[64];
+    private PieceSprites sprites;
+    private Color lightColor;
+    private Color darkColor;
+    private BufferedImage buffer;
+    private int squareSize;
+    private int pixelSize;
+    private int originX;
+    private int originY;
+
+    public BoardComponent(Color lightColor, Color darkColor, SquareListener listener) {
+        this.lightColor = lightColor;
+        this.darkColor = darkColor;
+        Arrays.fill(pieces, -1);
+        setPreferredSize(new Dimension(8 * PREFERRED_SQUARE_SIZE, 8 * PREFERRED_SQUARE_SIZE));
+        setOpaque(true);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (squareSize == 0) return;
+                int col = Math.floorDiv(e.getX() - originX, squareSize);
+                int row = Math.floorDiv(e.getY() - originY, squareSize);
+                if (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                    listener.squareClicked(row, col);
+                }
+            }
+        });
+    }
+
+    public void setColors(Color light, Color dark) {
+        lightColor = light;
+        darkColor = dark;
+        invalidateBuffer();
+    }
+
+    public void setPieceSprites(PieceSprites pieceSprites) {
+        sprites = pieceSprites;
+        invalidateBuffer();
+    }
+
+    // Copia a posição do tabuleiro; as casas que mudaram são redesenhadas
+    public void setPosition(Board board) {
+        for (int square = 0; square < 64; square++) {
+            int piece = PieceSprites.index(board.getPieceAt(new Position(square >> 3, square & 7)));
+            if (piece != pieces[square]) {
+                pieces[square] = piece;
+                squareChanged(square);
+            }
+        }
+    }
+
+    // Destaque de uma casa (NONE, SELECTED, TARGET ou CAPTURE)
+    public void setHighlight(Position position, int highlight) {
+        int square = position.getRow() * 8 + position.getColumn();
+        if (highlights[square] != highlight) {
+            highlights[square] = highlight;
+            squareChanged(square);
+        }
+    }
+
+    public void clearHighlights() {
+        for (int square = 0; square < 64; square++) {
+            if (highlights[square] != NONE) {
+                highlights[square] = NONE;
+                squareChanged(square);
+            }
+        }
+    }
+
+    private void squareChanged(int square) {
+        if (buffer == null) return; // será desenhada junto com a imagem inteira
+        paintSquare(buffer.createGraphics(), square);
+        repaint(originX + (square & 7) * squareSize, originY + (square >> 3) * squareSize, squareSize, squareSize);
+    }
+
+    private void invalidateBuffer() {
+        buffer = null;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int size = Math.min(getWidth(), getHeight()) / 8;
+        if (size <= 0) return;
+        int pixels = (int) Math.round(size * ((Graphics2D) g).getTransform().getScaleX());
+        if (buffer == null || size != squareSize || pixels != pixelSize) {
+            squareSize = size;
+            pixelSize = pixels;
+            buffer = new BufferedImage(8 * pixels, 8 * pixels, BufferedImage.TYPE_INT_RGB);
+            for (int square = 0; square < 64; square++) {
+                paintSquare(buffer.createGraphics(), square);
+            }
+        }
+        originX = (getWidth() - 8 * squareSize) / 2;
+        originY = (getHeight() - 8 * squareSize) / 2;
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+        g.drawImage(buffer, originX, originY, 8 * squareSize, 8 * squareSize, null);
+    }
+
+    private void paintSquare(Graphics2D g, int square) {
+        int row = square >> 3;
+        int col = square & 7;
+        int x = col * pixelSize;
+        int y = row * pixelSize;
+        g.setColor((row + col) % 2 == 0 ? lightColor : darkColor);
+        g.fillRect(x, y, pixelSize, pixelSize);
+
+        if (sprites != null && pieces[square] >= 0) {
+            int size = (int) Math.round(pixelSize * PIECE_SCALE);
+            int offset = (pixelSize - size) / 2;
+            sprites.draw(g, pieces[square], x + offset, y + offset, size, this::invalidateBuffer);
+        }
+
+        if (highlights[square] != NONE) {
+            g.setColor(HIGHLIGHT_COLORS[highlights[square]]);
+            int width = (int) Math.round(HIGHLIGHT_WIDTH * pixelSize / (double) squareSize);
+            for (int i = 0; i < width; i++) {
+                g.drawRect(x + i, y + i, pixelSize - 1 - 2 * i, pixelSize - 1 - 2 * i);
+            }
+        }
+        g.dispose();
+    }
+}
@@ -1,27 +1,58 @@
 
 package view;
 
+import controller.Bitbases;
 import controller.ChessAI;
+import controller.ExperienceFile;
+import controller.ClassicEvaluator;
+import controller.EvalWeights;
+import controller.Evaluator;
+import controller.NnueEvaluator;
+import controller.NnueNetwork;
 import controller.Game;
+import controller.GameJournal;
+import controller.PgnGame;
+import controller.PgnReader;
+import controller.PgnWriter;
+import controller.PolyglotBook;
+import controller.PositionIndex;
+import controller.San;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
-import java.net.URL;
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
 import model.board.Move;
 import model.board.Position;
+import model.board.Zobrist;
 import model.pieces.Piece;
 
 public class ChessGUI extends JFrame {
+    private static final String OPENING_BOOK_FILE = "book.bin";
+    private static final String BITBASES_DIRECTORY = "bitbases";
+    private static final String EXPERIENCE_FILE = "experience.bin";
+    private static final String NNUE_FILE = "nnue.bin";
+    private static final String WEIGHTS_FILE = "weights.txt";
+    private static final String JOURNAL_FILE = "journal.bin";
+    private static final String POSITION_INDEX_FILE = "positions.idx";
+
     private Game game;
-    private JPanel boardPanel;
-    private JButton[][] squares;
-    private Map<String, ImageIcon> pieceIcons;
-    private JTextArea moveHistoryTextArea;
+    private BoardComponent boardView;
+    private MoveListModel moveListModel;
+    private JList<String> moveList;
     private JLabel turnLabel;
     private Color lightSquareColor;
     private Color darkSquareColor;
@@ -29,22 +60,38 @@ public class ChessGUI extends JFrame {
     private ChessAI ai;
     private boolean playAgainstAI;
     private boolean aiPlaysWhite;
+    private PolyglotBook openingBook;
+    private Bitbases bitbases;
+    private ExperienceFile experience;
+    private GameJournal journal;
+    private PositionIndex positionIndex;
+    private EvalWeights evalWeights;
+    private NnueNetwork nnueNetwork;
+    private boolean useNnue;
+    private SoundPlayer sounds;
 
     public ChessGUI() {
-        game = new Game();
-        ai = new ChessAI(game);
-        ai.setDifficulty(ChessAI.Difficulty.MEDIUM); // Definir dificuldade padrão como média
+        piecesTheme = "classic";
+        loadPieceSprites();
+        sounds = new SoundPlayer();
+        journal = openJournal();
+        game = recoverGame();
+        attachGame();
+        openingBook = loadOpeningBook();
+        bitbases = loadBitbases();
+        experience = loadExperience();
+        evalWeights = loadEvalWeights();
+        ai = createAI(ChessAI.Difficulty.MEDIUM); // Definir dificuldade padrão como média
         playAgainstAI = true; // Sempre iniciar contra a IA
         aiPlaysWhite = false; // IA joga com as peças pretas
-        piecesTheme = "classic"; 
 
         // Tema inicial
         lightSquareColor = new Color(200, 200, 255); // azul claro
         darkSquareColor = new Color(100, 149, 237);  // azul escuro
 
         initializeGUI();
-        loadPieceIcons();
         updateBoardDisplay();
+        updateMoveHistory();
         // Garantir que a IA faça seu movimento se necessário
         SwingUtilities.invokeLater(() -> {
             playAIMoveIfNeeded();
@@ -54,6 +101,16 @@ public class ChessGUI extends JFrame {
     private void initializeGUI() {
         setTitle("Jogo de Xadrez em Java");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                ai.commitExperience();
+                sounds.close();
+                if (journal != null) {
+                    journal.sync();
+                }
+            }
+        });
         setSize(750, 630);
         setLayout(new BorderLayout());
 
@@ -85,6 +142,18 @@ public class ChessGUI extends JFrame {
         });
         controlPanel.add(undoButton);
 
+        JButton redoButton = new JButton("Refazer");
+        redoButton.addActionListener(e -> {
+            if (game.redoMove()) {
+                updateBoardDisplay();
+                updateMoveHistory();
+                turnLabel.setText("Turno: " + (game.isWhiteTurn() ? "Brancas" : "Pretas"));
+            } else {
+                JOptionPane.showMessageDialog(this, "Não há jogadas para refazer!");
+            }
+        });
+        controlPanel.add(redoButton);
+
         JButton saveButton = new JButton("Salvar");
         saveButton.addActionListener(e -> {
             JFileChooser fileChooser = new JFileChooser();
@@ -92,7 +161,7 @@ public class ChessGUI extends JFrame {
             int userSelection = fileChooser.showSaveDialog(this);
             if (userSelection == JFileChooser.APPROVE_OPTION) {
                 File fileToSave = fileChooser.getSelectedFile();
-                game.saveGame(fileToSave.getAbsolutePath());
+                saveGame(fileToSave.toPath());
             }
         });
         controlPanel.add(saveButton);
@@ -104,13 +173,7 @@ public class ChessGUI extends JFrame {
             int userSelection = fileChooser.showOpenDialog(this);
             if (userSelection == JFileChooser.APPROVE_OPTION) {
                 File fileToLoad = fileChooser.getSelectedFile();
-                Game loadedGame = Game.loadGame(fileToLoad.getAbsolutePath());
-                if (loadedGame != null) {
-                    game = loadedGame;
-                    updateBoardDisplay();
-                    updateMoveHistory();
-                    turnLabel.setText("Turno: " + (game.isWhiteTurn() ? "Brancas" : "Pretas"));
-                }
+                loadGame(fileToLoad.toPath(), false);
             }
         });
         controlPanel.add(loadButton);
@@ -119,30 +182,8 @@ public class ChessGUI extends JFrame {
         add(topPanel, BorderLayout.NORTH);
 
         // TABULEIRO
-        boardPanel = new JPanel(new GridLayout(8, 8));
-        squares = new JButton[8][8];
-        boolean isWhite = true;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                squares[row][col] = new JButton();
-                squares[row][col].setPreferredSize(new Dimension(70, 70));
-                squares[row][col].setBackground(isWhite ? lightSquareColor : darkSquareColor);
-
-                final int r = row;
-                final int c = col;
-                squares[row][col].addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mouseClicked(MouseEvent e) {
-                        handleSquareClick(r, c);
-                    }
-                });
-
-                boardPanel.add(squares[row][col]);
-                isWhite = !isWhite;
-            }
-            isWhite = !isWhite;
-        }
-        add(boardPanel, BorderLayout.CENTER);
+        boardView = new BoardComponent(lightSquareColor, darkSquareColor, this::handleSquareClick);
+        add(boardView, BorderLayout.CENTER);
 
         // HISTÓRICO DE MOVIMENTOS
         JPanel rightPanel = new JPanel(new BorderLayout());
@@ -150,9 +191,32 @@ public class ChessGUI extends JFrame {
         JLabel historyLabel = new JLabel("Histórico de Movimentos");
         historyLabel.setHorizontalAlignment(JLabel.CENTER);
         rightPanel.add(historyLabel, BorderLayout.NORTH);
-        moveHistoryTextArea = new JTextArea();
-        moveHistoryTextArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(moveHistoryTextArea);
+        // Clicar num lance mostra a posição depois dele; os lances desfeitos aparecem em cinza
+        moveListModel = new MoveListModel();
+        moveList = new JList<>(moveListModel);
+        moveList.setPrototypeCellValue("999... Qxe8=Q+");
+        moveList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        moveList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected,
+                    boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                if (index >= moveListModel.getCurrentPly()) {
+                    setForeground(Color.GRAY);
+                }
+                return this;
+            }
+        });
+        moveList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = moveList.locationToIndex(e.getPoint());
+                if (index >= 0 && moveList.getCellBounds(index, index).contains(e.getPoint())) {
+                    goToPly(index + 1);
+                }
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(moveList);
         rightPanel.add(scrollPane, BorderLayout.CENTER);
         add(rightPanel, BorderLayout.EAST);
 
@@ -175,6 +239,31 @@ public class ChessGUI extends JFrame {
         JMenuItem newGameItem = new JMenuItem("Novo Jogo");
         newGameItem.addActionListener(e -> startNewGame(true, false));
         gameMenu.add(newGameItem);
+
+        gameMenu.addSeparator();
+        JMenuItem importPgnItem = new JMenuItem("Importar PGN...");
+        importPgnItem.addActionListener(e -> {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setDialogTitle("Importar PGN");
+            if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                loadGame(fileChooser.getSelectedFile().toPath(), true);
+            }
+        });
+        gameMenu.add(importPgnItem);
+
+        JMenuItem exportPgnItem = new JMenuItem("Exportar PGN...");
+        exportPgnItem.addActionListener(e -> {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setDialogTitle("Exportar PGN");
+            if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+                exportPgn(fileChooser.getSelectedFile().toPath());
+            }
+        });
+        gameMenu.add(exportPgnItem);
+
+        JMenuItem positionItem = new JMenuItem("Partidas com esta posição");
+        positionItem.addActionListener(e -> showIndexedPosition());
+        gameMenu.add(positionItem);
         
         // Menu de dificuldade da IA
         JMenu difficultyMenu = new JMenu("Dificuldade da IA");
@@ -210,6 +299,19 @@ public class ChessGUI extends JFrame {
         gameMenu.addSeparator();
         gameMenu.add(difficultyMenu);
 
+        // Menu de avaliação da IA
+        JMenu evaluationMenu = new JMenu("Avaliação da IA");
+
+        JMenuItem classicItem = new JMenuItem("Clássica");
+        classicItem.addActionListener(e -> setNnueEnabled(false));
+        evaluationMenu.add(classicItem);
+
+        JMenuItem nnueItem = new JMenuItem("Rede neural (NNUE)");
+        nnueItem.addActionListener(e -> setNnueEnabled(true));
+        evaluationMenu.add(nnueItem);
+
+        gameMenu.add(evaluationMenu);
+
         // MENU DE CORES
         JMenu themeMenu = new JMenu("Cores do Tabuleiro");
 
@@ -250,7 +352,7 @@ public class ChessGUI extends JFrame {
     private void setBoardColors(Color light, Color dark) {
         lightSquareColor = light;
         darkSquareColor = dark;
-        updateBoardColors();
+        boardView.setColors(light, dark);
     }
 
     private void startNewGame(boolean againstAI, boolean aiWhite) {
@@ -262,11 +364,12 @@ public class ChessGUI extends JFrame {
         ChessAI.Difficulty currentDifficulty = ChessAI.Difficulty.MEDIUM;
         if (ai != null) {
             currentDifficulty = ai.getDifficulty();
+            ai.commitExperience();
         }
         
         game = new Game();
-        ai = new ChessAI(game);
-        ai.setDifficulty(currentDifficulty); // Manter a dificuldade atual
+        attachGame();
+        ai = createAI(currentDifficulty); // Manter a dificuldade atual
         
         updateBoardDisplay();
         updateMoveHistory();
@@ -278,58 +381,228 @@ public class ChessGUI extends JFrame {
         });
     }
 
-    private void updateBoardColors() {
-        boolean isWhite = true;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                squares[row][col].setBackground(isWhite ? lightSquareColor : darkSquareColor);
-                isWhite = !isWhite;
+    // O conteúdo é gerado aqui, na thread da interface, e só a escrita no disco vai para o SwingWorker
+    private void saveGame(Path path) {
+        ByteBuffer data = game.toSaveData();
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                Game.writeSaveData(path, data);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    System.out.println("Jogo salvo com sucesso em: " + path);
+                } catch (InterruptedException | ExecutionException e) {
+                    JOptionPane.showMessageDialog(ChessGUI.this, "Erro ao salvar o jogo: " + errorMessage(e));
+                }
             }
-            isWhite = !isWhite;
+        }.execute();
+    }
+
+    // A partida é exportada a partir de uma cópia, para que a IA possa continuar jogando na original
+    private void exportPgn(Path path) {
+        Game snapshot;
+        try {
+            snapshot = Game.fromSaveData(game.toSaveData(), "partida atual");
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Erro ao exportar o PGN: " + e.getMessage());
+            return;
         }
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "Xadrez");
+        tags.put("Date", LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd")));
+        tags.put("White", playAgainstAI && aiPlaysWhite ? "Computador" : "Jogador");
+        tags.put("Black", playAgainstAI && !aiPlaysWhite ? "Computador" : "Jogador");
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                try (PgnWriter writer = PgnWriter.open(path, false)) {
+                    writer.write(snapshot, tags);
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    System.out.println("PGN exportado para: " + path);
+                } catch (InterruptedException | ExecutionException e) {
+                    JOptionPane.showMessageDialog(ChessGUI.this, "Erro ao exportar o PGN: " + errorMessage(e));
+                }
+            }
+        }.execute();
     }
 
-    private void updateBoardDisplay() {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = game.getBoard().getPieceAt(new Position(row, col));
-                if (piece == null) {
-                    squares[row][col].setIcon(null);
-                } else {
-                    squares[row][col].setIcon(pieceIcons.get(getPieceKey(piece)));
+    // A partida é lida e refeita fora da thread da interface; a IA é recriada para a partida carregada.
+    // De um PGN, só a primeira partida do arquivo é carregada.
+    private void loadGame(Path path, boolean pgn) {
+        new SwingWorker<Game, Void>() {
+            @Override
+            protected Game doInBackground() throws IOException {
+                if (!pgn) {
+                    return Game.loadGame(path);
+                }
+                try (PgnReader reader = PgnReader.open(path)) {
+                    PgnGame first = reader.readGame();
+                    if (first == null) {
+                        throw new IOException("Nenhuma partida em " + path);
+                    }
+                    return first.replay();
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    Game loadedGame = get();
+                    ChessAI.Difficulty currentDifficulty = ai.getDifficulty();
+                    ai.commitExperience();
+                    game = loadedGame;
+                    attachGame();
+                    ai = createAI(currentDifficulty);
+                    updateBoardDisplay();
+                    updateMoveHistory();
+                    turnLabel.setText("Turno: " + (game.isWhiteTurn() ? "Brancas" : "Pretas"));
+                    System.out.println("Jogo carregado com sucesso de: " + path);
+                    playAIMoveIfNeeded();
+                } catch (InterruptedException | ExecutionException e) {
+                    JOptionPane.showMessageDialog(ChessGUI.this, "Erro ao carregar o jogo: " + errorMessage(e));
                 }
-                squares[row][col].setBorder(null);
+            }
+        }.execute();
+    }
+
+    private static String errorMessage(Exception e) {
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage();
+    }
+
+    // Consulta o índice de posições (aberto na primeira vez) e mostra os lances jogados a partir daqui
+    private void showIndexedPosition() {
+        if (positionIndex == null) {
+            try {
+                positionIndex = PositionIndex.open(Paths.get(POSITION_INDEX_FILE));
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(this, "Não foi possível abrir " + POSITION_INDEX_FILE + ": " + e.getMessage());
+                return;
+            }
+        }
+        List<PositionIndex.Entry> entries = positionIndex.lookup(game);
+        if (entries.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Nenhuma partida do índice chegou a esta posição.");
+            return;
+        }
+
+        List<Move> legalMoves = game.getLegalMoves();
+        Map<String, Integer> nextMoves = new LinkedHashMap<>();
+        for (PositionIndex.Entry entry : entries) {
+            String move = "(fim da partida)";
+            for (Move legal : legalMoves) {
+                if (legal.getFrom().equals(entry.getNextFrom()) && legal.getTo().equals(entry.getNextTo())) {
+                    move = San.toSan(game, legal);
+                    break;
+                }
+            }
+            nextMoves.merge(move, 1, Integer::sum);
+        }
+        StringBuilder text = new StringBuilder();
+        text.append(entries.size()).append(" ocorrências em ").append(positionIndex.getGameCount())
+                .append(" partidas indexadas\n\n");
+        nextMoves.entrySet().stream()
+                .sorted((a, b) -> b.getValue() - a.getValue())
+                .forEach(move -> text.append(move.getKey()).append(": ").append(move.getValue()).append('\n'));
+        JOptionPane.showMessageDialog(this, text.toString(), "Partidas com esta posição", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private ChessAI createAI(ChessAI.Difficulty difficulty) {
+        ChessAI newAI = new ChessAI(game);
+        newAI.setDifficulty(difficulty);
+        newAI.setOpeningBook(openingBook);
+        newAI.setBitbases(bitbases);
+        newAI.setExperience(experience);
+        newAI.setEvaluator(createEvaluator());
+        return newAI;
+    }
+
+    private Evaluator createEvaluator() {
+        return useNnue ? new NnueEvaluator(nnueNetwork) : new ClassicEvaluator(evalWeights);
+    }
+
+    private void setNnueEnabled(boolean enabled) {
+        if (enabled && nnueNetwork == null) {
+            try {
+                nnueNetwork = NnueNetwork.load(Paths.get(NNUE_FILE));
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(this, "Não foi possível carregar " + NNUE_FILE + ": " + e.getMessage());
+                return;
             }
         }
+        useNnue = enabled;
+        ai.setEvaluator(createEvaluator());
+        JOptionPane.showMessageDialog(this, "Avaliação da IA: " + (useNnue ? "rede neural (NNUE)" : "clássica"));
+    }
+
+    private void updateBoardDisplay() {
+        boardView.clearHighlights();
+        boardView.setPosition(game.getBoard());
     }
 
     private void updateMoveHistory() {
-        List<Move> history = game.getMoveHistory();
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < history.size(); i++) {
-            if (i % 2 == 0)
-                sb.append((i / 2) + 1).append(". ");
-            sb.append(history.get(i).toString()).append(" ");
-            if (i % 2 == 1)
-                sb.append("\n");
+        moveListModel.sync(game);
+        int ply = moveListModel.getCurrentPly();
+        if (ply > 0) {
+            moveList.setSelectedIndex(ply - 1);
+            moveList.ensureIndexIsVisible(ply - 1);
+        } else {
+            moveList.clearSelection();
+        }
+        moveList.repaint(); // a cor dos lances desfeitos depende do ply atual
+    }
+
+    private void goToPly(int ply) {
+        if (ply == game.getMoveHistory().size() || !game.goToPly(ply)) return;
+        updateBoardDisplay();
+        updateMoveHistory();
+        turnLabel.setText("Turno: " + (game.isWhiteTurn() ? "Brancas" : "Pretas"));
+    }
+
+    // Mate encerra a partida; afogamento, repetição tripla e 50 lances são anunciados como empate
+    private void showGameEnd() {
+        if (game.isGameOver()) {
+            ai.commitExperience();
+            JOptionPane.showMessageDialog(this, (game.isWhiteTurn() ? "Pretas" : "Brancas") + " vencem! Xeque-mate.");
+        } else if (game.isStalemate()) {
+            ai.commitExperience();
+            JOptionPane.showMessageDialog(this, "Empate por afogamento.");
+        } else if (game.isDraw()) {
+            ai.commitExperience();
+            JOptionPane.showMessageDialog(this, "Empate por "
+                    + (game.isFiftyMoveRule() ? "50 lances sem captura nem movimento de peão." : "repetição tripla."));
         }
-        moveHistoryTextArea.setText(sb.toString());
     }
 
     private void playAIMoveIfNeeded() {
-        if (!playAgainstAI || game.isGameOver()) return;
+        if (!playAgainstAI || game.isGameOver() || game.isDraw()) return;
         if (game.isWhiteTurn() != aiPlaysWhite) return;
 
         Timer timer = new Timer(500, e -> {
+            int plies = game.getMoveHistory().size();
             ai.makeMove();
+            if (game.getMoveHistory().size() > plies) {
+                playMoveSound();
+            }
             SwingUtilities.invokeLater(() -> {
                 updateBoardDisplay();
                 updateMoveHistory();
                 turnLabel.setText("Turno: " + (game.isWhiteTurn() ? "Brancas" : "Pretas"));
                 if (game.isInCheck(game.isWhiteTurn()))
                     JOptionPane.showMessageDialog(this, "Xeque!");
-                if (game.isGameOver())
-                    JOptionPane.showMessageDialog(this, (game.isWhiteTurn() ? "Pretas" : "Brancas") + " vencem! Xeque-mate.");
+                showGameEnd();
                 playAIMoveIfNeeded();
             });
         });
@@ -337,7 +610,15 @@ public class ChessGUI extends JFrame {
         timer.start();
     }
 
+    // Só enfileira o som; ele é tocado na thread do SoundPlayer
+    private void playMoveSound() {
+        List<Move> history = game.getMoveHistory();
+        boolean capture = history.get(history.size() - 1).getCapturedPiece() != null;
+        sounds.play(capture ? SoundPlayer.Sound.CAPTURE : SoundPlayer.Sound.MOVE);
+    }
+
     private void handleSquareClick(int row, int col) {
+        if (game.isDraw()) return;
         Position position = new Position(row, col);
         Piece selectedPiece = game.getSelectedPiece();
         clearHighlights();
@@ -350,14 +631,14 @@ public class ChessGUI extends JFrame {
         } else {
             boolean moveSuccessful = game.movePiece(selectedPiece.getPosition(), position);
             if (moveSuccessful) {
+                playMoveSound();
                 updateBoardDisplay();
                 updateMoveHistory();
                 turnLabel.setText("Turno: " + (game.isWhiteTurn() ? "Brancas" : "Pretas"));
 
                 if (game.isInCheck(game.isWhiteTurn()))
                     JOptionPane.showMessageDialog(this, "Xeque!");
-                if (game.isGameOver())
-                    JOptionPane.showMessageDialog(this, (game.isWhiteTurn() ? "Pretas" : "Brancas") + " vencem! Xeque-mate.");
+                showGameEnd();
 
                 playAIMoveIfNeeded();
             } else {
@@ -374,69 +655,133 @@ public class ChessGUI extends JFrame {
 
     private void highlightSelection(Piece piece) {
         Position from = piece.getPosition();
-        squares[from.getRow()][from.getColumn()]
-                .setBorder(BorderFactory.createLineBorder(Color.BLUE, 3));
-
-        List<Position> moves = piece.getPossibleMoves();
-        if (moves != null) {
-            for (Position pos : moves) {
-                Piece targetPiece = game.getBoard().getPieceAt(pos);
-                if (targetPiece == null)
-                    squares[pos.getRow()][pos.getColumn()].setBorder(BorderFactory.createLineBorder(Color.GREEN, 3));
-                else if (targetPiece.isWhite() != piece.isWhite())
-                    squares[pos.getRow()][pos.getColumn()].setBorder(BorderFactory.createLineBorder(Color.RED, 3));
-            }
+        boardView.setHighlight(from, BoardComponent.SELECTED);
+
+        // Só os lances legais, vindos da cache da partida (a mesma que valida o lance no clique seguinte)
+        for (Position pos : game.getLegalDestinations(from)) {
+            boolean capture = game.getBoard().getPieceAt(pos) != null;
+            boardView.setHighlight(pos, capture ? BoardComponent.CAPTURE : BoardComponent.TARGET);
         }
     }
 
     private void clearHighlights() {
-        for (int r = 0; r < 8; r++)
-            for (int c = 0; c < 8; c++)
-                squares[r][c].setBorder(null);
+        boardView.clearHighlights();
     }
 
-    private String getPieceKey(Piece piece) {
-        String color = piece.isWhite() ? "w" : "b";
-        String symbol = switch (piece.getSymbol()) {
-            case "K" -> "K";
-            case "Q" -> "Q";
-            case "R" -> "R";
-            case "B" -> "B";
-            case "N" -> "N";
-            case "P" -> "P";
-            default -> "";
-        };
-        return color + symbol;
+    // O livro é opcional: sem book.bin no diretório de trabalho a IA sempre pesquisa
+    private PolyglotBook loadOpeningBook() {
+        Path bookPath = Paths.get(OPENING_BOOK_FILE);
+        if (!Files.isRegularFile(bookPath)) {
+            return null;
+        }
+        try {
+            Zobrist keys = Zobrist.polyglot();
+            if (!PolyglotBook.isPolyglotKeys(keys)) {
+                System.err.println("Livro de aberturas ignorado: as chaves Polyglot não conferem com a posição inicial");
+                return null;
+            }
+            PolyglotBook book = PolyglotBook.open(bookPath, keys);
+            System.out.println("Livro de aberturas carregado: " + book.size() + " entradas");
+            return book;
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o livro de aberturas: " + e.getMessage());
+            return null;
+        }
     }
 
-    private void loadPieceIcons() {
-        pieceIcons = new HashMap<>();
-        String[] pieces = { "king", "queen", "rook", "bishop", "knight", "pawn" };
-        String[] colors = { "white", "black" };
-
-        for (String color : colors) {
-            for (String piece : pieces) {
-                String key = switch (piece) {
-                    case "king" -> (color.equals("white") ? "wK" : "bK");
-                    case "queen" -> (color.equals("white") ? "wQ" : "bQ");
-                    case "rook" -> (color.equals("white") ? "wR" : "bR");
-                    case "bishop" -> (color.equals("white") ? "wB" : "bB");
-                    case "knight" -> (color.equals("white") ? "wN" : "bN");
-                    case "pawn" -> (color.equals("white") ? "wP" : "bP");
-                    default -> "";
-                };
-
-                String path = "/resources/pieces/" + piecesTheme + "/" + color + "_" + piece + ".png";
-                URL imageURL = getClass().getResource(path);
-                if (imageURL != null) {
-                    ImageIcon icon = new ImageIcon(imageURL);
-                    Image scaled = icon.getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
-                    pieceIcons.put(key, new ImageIcon(scaled));
-                } else {
-                    System.err.println("Não foi possível encontrar: " + path);
+    // Bitbases geradas com "java controller.BitbaseGenerator bitbases"; também são opcionais
+    private Bitbases loadBitbases() {
+        Path directory = Paths.get(BITBASES_DIRECTORY);
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try {
+            Bitbases tables = Bitbases.open(directory);
+            System.out.println("Bitbases carregadas: " + tables.size() + " finais");
+            return tables;
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir as bitbases: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Experiência acumulada entre sessões; criada vazia na primeira execução
+    private ExperienceFile loadExperience() {
+        try {
+            return ExperienceFile.open(Paths.get(EXPERIENCE_FILE), ExperienceFile.DEFAULT_SLOTS);
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o arquivo de experiência: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Diário da partida em andamento: cada lance é gravado ao ser jogado
+    private GameJournal openJournal() {
+        try {
+            return GameJournal.open(Paths.get(JOURNAL_FILE));
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o diário da partida: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Retoma a partida interrompida (por exemplo, numa queda do programa) a partir do diário
+    private Game recoverGame() {
+        Game recovered = null;
+        if (journal != null) {
+            try {
+                recovered = journal.recover();
+                if (!recovered.getMoveHistory().isEmpty()) {
+                    System.out.println("Partida recuperada do diário: " + recovered.getMoveHistory().size() + " lances");
                 }
+            } catch (IOException e) {
+                System.err.println("Erro ao recuperar a partida do diário: " + e.getMessage());
             }
         }
+        return recovered != null ? recovered : new Game();
+    }
+
+    // A partida atual passa a ser gravada no diário, que recomeça com ela, e as promoções do jogador
+    // passam a ser escolhidas numa janela
+    private void attachGame() {
+        game.setPromotionStrategy(new PromotionDialog(this));
+        if (journal != null) {
+            journal.reset(game);
+            game.setJournal(journal);
+        }
+    }
+
+    // Pesos ajustados com "java controller.TexelTuner"; sem o arquivo valem os pesos padrão
+    private EvalWeights loadEvalWeights() {
+        Path path = Paths.get(WEIGHTS_FILE);
+        if (Files.isRegularFile(path)) {
+            try {
+                return EvalWeights.load(path);
+            } catch (IOException e) {
+                System.err.println("Erro ao ler os pesos da avaliação: " + e.getMessage());
+            }
+        }
+        return EvalWeights.defaults();
+    }
+
+    // As imagens das peças são decodificadas fora da thread da interface, junto com o resto da inicialização;
+    // até ficarem prontas o tabuleiro aparece sem as peças
+    private void loadPieceSprites() {
+        new SwingWorker<PieceSprites, Void>() {
+            @Override
+            protected PieceSprites doInBackground() throws IOException {
+                return PieceSprites.load(piecesTheme);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    boardView.setPieceSprites(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Erro ao carregar as peças: " + errorMessage(e));
+                }
+            }
+        }.execute();
     }
 
     public static void main(String[] args) {
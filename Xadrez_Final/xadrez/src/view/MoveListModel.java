@@ -0,0 +1,89 @@
+package view;
+
+import controller.Game;
+import controller.San;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.AbstractListModel;
+import model.board.Move;
+
+// Modelo do histórico de lances, um item por ply ("12. Nf3", "12... Nc6"), incluindo os lances desfeitos
+// que ainda podem ser refeitos. A SAN de cada lance é calculada uma vez, numa cópia da partida que anda
+// junto com a lista; a cada sincronização só a parte que mudou no fim da lista é refeita, então uma
+// partida longa custa o mesmo por lance que uma curta.
+public class MoveListModel extends AbstractListModel<String> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Move> moves = new ArrayList<>();
+    private final List<String> labels = new ArrayList<>();
+    private Game game;
+    private Game replay;
+    private int currentPly;
+
+    // Acompanha a partida: lances jogados até o ply atual, seguidos dos que podem ser refeitos
+    public void sync(Game game) {
+        if (game != this.game) {
+            // Esvazia a lista desfazendo os lances na cópia antiga, antes de trocá-la pela da partida nova
+            truncate(0);
+            this.game = game;
+            replay = game.getStartFen() == null ? new Game() : Game.fromFen(game.getStartFen());
+        }
+        List<Move> history = game.getMoveHistory();
+        List<Move> redo = game.getRedoMoves();
+        int played = history.size();
+        int total = played + redo.size();
+
+        // Os lances só mudam no fim: se o último lance jogado é o mesmo, o começo da lista também é
+        int common;
+        if (played == 0 || (moves.size() >= played && moves.get(played - 1) == history.get(played - 1))) {
+            common = played;
+        } else {
+            common = 0;
+            while (common < played && common < moves.size() && moves.get(common) == history.get(common)) {
+                common++;
+            }
+        }
+        while (common >= played && common < total && common < moves.size()
+                && moves.get(common) == redo.get(common - played)) {
+            common++;
+        }
+        truncate(common);
+
+        for (int ply = common; ply < total; ply++) {
+            Move move = ply < played ? history.get(ply) : redo.get(ply - played);
+            String number = replay.getFullMoveNumber() + (replay.isWhiteTurn() ? ". " : "... ");
+            moves.add(move);
+            labels.add(number + San.play(replay, move));
+        }
+        if (total > common) {
+            fireIntervalAdded(this, common, total - 1);
+        }
+        currentPly = played;
+    }
+
+    // Ply da posição mostrada: os itens a partir dele são lances que podem ser refeitos
+    public int getCurrentPly() {
+        return currentPly;
+    }
+
+    private void truncate(int size) {
+        int oldSize = moves.size();
+        if (oldSize <= size) return;
+        for (int ply = oldSize - 1; ply >= size; ply--) {
+            moves.remove(ply);
+            labels.remove(ply);
+            replay.undoLastMove();
+        }
+        fireIntervalRemoved(this, size, oldSize - 1);
+    }
+
+    @Override
+    public int getSize() {
+        return labels.size();
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return labels.get(index);
+    }
+}
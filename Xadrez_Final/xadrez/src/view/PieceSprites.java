@@ -0,0 +1,125 @@
+package view;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+import model.pieces.Piece;
+
+// Imagens das peças de um tema, decodificadas uma vez num único atlas (linha 0 brancas, linha 1 pretas,
+// na ordem de PIECES). Para cada tamanho em pixels o atlas é redimensionado uma só vez, numa thread
+// própria, e guardado; enquanto isso as peças são desenhadas direto do original, com interpolação
+// simples. Temas já carregados também ficam guardados.
+public class PieceSprites {
+    private static final String PIECES = "KQRBNP";
+    private static final String[] NAMES = { "king", "queen", "rook", "bishop", "knight", "pawn" };
+    private static final Map<String, PieceSprites> THEMES = new ConcurrentHashMap<>();
+    private static final ExecutorService SCALER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "piece-sprites");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final BufferedImage atlas;
+    private final int cell;
+    private final Map<Integer, BufferedImage> scaled = new ConcurrentHashMap<>();
+    private final Set<Integer> scaling = ConcurrentHashMap.newKeySet();
+
+    private PieceSprites(BufferedImage atlas, int cell) {
+        this.atlas = atlas;
+        this.cell = cell;
+    }
+
+    // Decodifica as imagens do tema (só na primeira vez); é lento, então não deve rodar na EDT
+    public static PieceSprites load(String theme) throws IOException {
+        PieceSprites sprites = THEMES.get(theme);
+        if (sprites == null) {
+            sprites = decode(theme);
+            THEMES.put(theme, sprites);
+        }
+        return sprites;
+    }
+
+    private static PieceSprites decode(String theme) throws IOException {
+        BufferedImage[] images = new BufferedImage[12];
+        int cell = 1;
+        for (int i = 0; i < 12; i++) {
+            String path = "/resources/pieces/" + theme + "/" + (i < 6 ? "white" : "black") + "_" + NAMES[i % 6] + ".png";
+            try (InputStream in = PieceSprites.class.getResourceAsStream(path)) {
+                images[i] = in != null ? ImageIO.read(in) : null;
+            }
+            if (images[i] == null) {
+                System.err.println("Não foi possível encontrar: " + path);
+            } else {
+                cell = Math.max(cell, Math.max(images[i].getWidth(), images[i].getHeight()));
+            }
+        }
+        BufferedImage atlas = new BufferedImage(6 * cell, 2 * cell, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        for (int i = 0; i < 12; i++) {
+            if (images[i] != null) {
+                g.drawImage(images[i], (i % 6) * cell + (cell - images[i].getWidth()) / 2,
+                        (i / 6) * cell + (cell - images[i].getHeight()) / 2, null);
+            }
+        }
+        g.dispose();
+        return new PieceSprites(atlas, cell);
+    }
+
+    // Índice da peça no atlas, ou -1 para casa vazia
+    public static int index(Piece piece) {
+        if (piece == null) return -1;
+        return (piece.isWhite() ? 0 : 6) + PIECES.indexOf(piece.getSymbol());
+    }
+
+    // Desenha a peça num quadrado de size pixels. Se o atlas desse tamanho ainda não está pronto, pede o
+    // redimensionamento e chama onScaled na EDT quando ele terminar
+    public void draw(Graphics2D g, int index, int x, int y, int size, Runnable onScaled) {
+        if (index < 0 || size <= 0) return;
+        BufferedImage image = scaled.get(size);
+        if (image != null) {
+            int sx = (index % 6) * size;
+            int sy = (index / 6) * size;
+            g.drawImage(image, x, y, x + size, y + size, sx, sy, sx + size, sy + size, null);
+            return;
+        }
+        if (scaling.add(size)) {
+            SCALER.execute(() -> {
+                scaled.put(size, scale(atlas, 6 * size, 2 * size));
+                scaling.remove(size);
+                SwingUtilities.invokeLater(onScaled);
+            });
+        }
+        int sx = (index % 6) * cell;
+        int sy = (index / 6) * cell;
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(atlas, x, y, x + size, y + size, sx, sy, sx + cell, sy + cell, null);
+    }
+
+    // Reduz pela metade, com interpolação bilinear, até chegar perto do tamanho final: a qualidade fica
+    // próxima da de SCALE_SMOOTH, mas em poucos milissegundos
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        do {
+            int w = Math.max(width, current.getWidth() / 2);
+            int h = Math.max(height, current.getHeight() / 2);
+            if (current.getWidth() <= width) w = width;
+            if (current.getHeight() <= height) h = height;
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (current.getWidth() != width || current.getHeight() != height);
+        return current;
+    }
+}
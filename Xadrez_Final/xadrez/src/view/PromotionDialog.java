@@ -0,0 +1,28 @@
+package view;
+
+import java.awt.Component;
+import javax.swing.JOptionPane;
+import controller.PromotionStrategy;
+
+// Pergunta ao jogador para qual peça o peão deve ser promovido
+public class PromotionDialog implements PromotionStrategy {
+    private static final String[] OPTIONS = { "Rainha", "Torre", "Bispo", "Cavalo" };
+    private static final String PIECES = "QRBN";
+
+    private final Component parent;
+
+    public PromotionDialog(Component parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public char choosePromotion(boolean white) {
+        int choice = JOptionPane.showOptionDialog(parent,
+                "Escolha uma peça para promoção:",
+                "Promoção de Peão",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null, OPTIONS, OPTIONS[0]);
+        return choice >= 0 ? PIECES.charAt(choice) : 'Q';
+    }
+}
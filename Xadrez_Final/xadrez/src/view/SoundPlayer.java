@@ -0,0 +1,130 @@
+package view;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+// Sons dos lances. Os arquivos são decodificados uma vez, e cada som ganha alguns Clips já abertos com
+// os dados em memória; tocar é só voltar um deles ao início e dar start. Tudo isso roda numa thread
+// própria: play apenas enfileira o pedido, então nunca bloqueia a interface nem a busca. Lances rápidos
+// tocam sobrepostos (um Clip livre para cada), e pedidos repetidos que ainda estão na fila são descartados.
+// Sem dispositivo de áudio, ou sem os arquivos, os sons ficam desligados.
+public class SoundPlayer {
+    public enum Sound {
+        MOVE("move.wav"),
+        CAPTURE("capture.wav");
+
+        private final String file;
+
+        Sound(String file) {
+            this.file = file;
+        }
+    }
+
+    private static final int LINES_PER_SOUND = 3;
+    private static final int QUEUE_SIZE = 4;
+
+    private final BlockingQueue<Sound> requests = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final Map<Sound, Clip[]> clips = new EnumMap<>(Sound.class);
+    private final Map<Sound, Integer> nextClip = new EnumMap<>(Sound.class);
+    private final Thread thread;
+    private volatile boolean enabled = true;
+    private volatile boolean ready;
+
+    public SoundPlayer() {
+        thread = new Thread(this::run, "sound-player");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Enfileira o som e volta imediatamente. Se os sons ainda não estão prontos, se a fila está cheia ou se
+    // o mesmo som já espera nela, o pedido é descartado
+    public void play(Sound sound) {
+        if (enabled && ready && !requests.contains(sound)) {
+            requests.offer(sound);
+        }
+    }
+
+    public void close() {
+        thread.interrupt();
+    }
+
+    private void run() {
+        try {
+            for (Sound sound : Sound.values()) {
+                clips.put(sound, openClips(sound));
+                nextClip.put(sound, 0);
+            }
+        } catch (IOException | UnsupportedAudioFileException | LineUnavailableException
+                | IllegalArgumentException | SecurityException e) {
+            System.err.println("Sons desligados: " + e.getMessage());
+            closeClips();
+            return;
+        }
+        ready = true;
+        try {
+            while (true) {
+                start(requests.take());
+            }
+        } catch (InterruptedException e) {
+            // encerrado por close
+        } finally {
+            ready = false;
+            closeClips();
+        }
+    }
+
+    // Usa o próximo Clip do som; se todos estão tocando, o mais antigo recomeça
+    private void start(Sound sound) {
+        Clip[] lines = clips.get(sound);
+        int index = nextClip.get(sound);
+        nextClip.put(sound, (index + 1) % lines.length);
+        Clip clip = lines[index];
+        clip.stop();
+        clip.setFramePosition(0);
+        clip.start();
+    }
+
+    private static Clip[] openClips(Sound sound)
+            throws IOException, UnsupportedAudioFileException, LineUnavailableException {
+        String path = "/resources/sounds/" + sound.file;
+        InputStream resource = SoundPlayer.class.getResourceAsStream(path);
+        if (resource == null) {
+            throw new IOException("não foi possível encontrar " + path);
+        }
+        AudioFormat format;
+        byte[] data;
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(new BufferedInputStream(resource))) {
+            format = in.getFormat();
+            data = in.readAllBytes();
+        }
+        Clip[] lines = new Clip[LINES_PER_SOUND];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = AudioSystem.getClip();
+            lines[i].open(format, data, 0, data.length);
+        }
+        return lines;
+    }
+
+    private void closeClips() {
+        for (Clip[] lines : clips.values()) {
+            for (Clip clip : lines) {
+                if (clip != null) clip.close();
+            }
+        }
+    }
+}